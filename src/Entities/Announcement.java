@@ -0,0 +1,96 @@
+package Entities;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * This class is one of the entity classes for this program, specifically for announcement.
+ * An announcement is stored once, no matter how many users receive it.
+ *
+ */
+public class Announcement {
+    private static final UsernameTable USERNAMES = UsernameTable.getInstance();
+
+    private final int sender;
+    private final UsernameSet recipients;
+    private final LocalDateTime time;
+    private final String content;
+
+    /** Creates an instance of Announcement
+     *
+     * @param sender Sender of Announcement
+     * @param recipients Usernames of the Receivers of Announcement
+     * @param content Content of Announcement
+     * @param time Time of the Announcement
+     */
+    public Announcement(String sender, Collection<String> recipients, String content, LocalDateTime time){
+        this.sender = USERNAMES.getId(sender);
+        this.recipients = new UsernameSet(recipients);
+        this.time = time;
+        this.content = content;
+    }
+
+    /** Returns the username of the Sender
+     *
+     * @return Username of Sender
+     */
+    public String getSender() { return USERNAMES.getUsername(sender); }
+
+    /** Returns the id of the Sender in the UsernameTable
+     *
+     * @return Id of Sender
+     */
+    public int getSenderId() { return sender; }
+
+    /** Returns the usernames of the Receivers
+     *
+     * @return New list of the usernames of the Receivers, in the order they were given
+     */
+    public List<String> getRecipients() { return recipients.toList(); }
+
+    /** Returns whether the user receives the Announcement
+     *
+     * @param username Username of the user
+     * @return true if the user is one of the Receivers, and false otherwise
+     */
+    public boolean isRecipient(String username) { return recipients.contains(username); }
+
+    /** Returns whether the user with the id receives the Announcement
+     *
+     * @param id Id of the user in the UsernameTable
+     * @return true if the user is one of the Receivers, and false otherwise
+     */
+    public boolean isRecipientId(int id) { return recipients.containsId(id); }
+
+    /** Stops the user from receiving the Announcement. The Receivers are changed in place, so this should not be
+     * called while they are being read. The MessageManager only calls it with every stripe of its locks held, which
+     * keeps out all of its readers, and copying announcements with thousands of Receivers for each removal would cost
+     * far more than the rare deletion of a thread.
+     *
+     * @param username Username of the user
+     */
+    public void removeRecipient(String username) {
+        recipients.remove(username);
+    }
+
+    /** Returns the time of the Announcement
+     *
+     * @return Time of Announcement
+     */
+    public LocalDateTime getTime() { return time; }
+
+    /** Returns the content of the Announcement
+     *
+     * @return Content of Announcement
+     */
+    public String getContent() { return content; }
+
+    /** Returns the Announcement as it appears in the chat of one of its Receivers
+     *
+     * @param receiver Username of the Receiver
+     * @return Message from the Sender to the Receiver with the content and time of the Announcement
+     */
+    public Message toMessage(String receiver) {
+        return new Message(sender, USERNAMES.getId(receiver), content, time);
+    }
+}
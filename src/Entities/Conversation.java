@@ -0,0 +1,283 @@
+package Entities;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * This class is one of the entity classes for this program, specifically for a conversation between two users.
+ * Every message of the conversation is stored once, in a log shared by both users and kept in order of time. Each user
+ * only keeps cursors into that log: the messages they deleted come before their delete cursor, and the messages they
+ * have read come before their read cursor. New messages are appended, and the rare message older than the latest one,
+ * such as one read from an old file, is inserted in its place, moving the cursors past it along with the messages.
+ * The 2 users are stored as their ids in the UsernameTable, and their cursors in an array of 2 ints each, the first
+ * user's at index 0 and the second user's at index 1.
+ * A Conversation read from a partitioned store only knows the size of its log and the time of its latest Message at
+ * first. The Messages themselves are loaded the first time they are needed.
+ * The log has to be read and appended to under the lock that MessageManager holds for the Conversation, while its size,
+ * the time of its latest Message and the cursors can be read at any time.
+ *
+ */
+public class Conversation {
+    private static final UsernameTable USERNAMES = UsernameTable.getInstance();
+
+    private final int firstUser;
+    private final int secondUser;
+    private volatile List<Message> messages;
+    private Supplier<List<Message>> loader;
+    private volatile int size;
+    private volatile LocalDateTime lastTime;
+    private volatile int numSavedMessages;
+    private final AtomicIntegerArray deleteCursors;
+    private final AtomicIntegerArray readCursors;
+
+    /** Creates an instance of Conversation
+     *
+     * @param firstUser Username of one user of the Conversation
+     * @param secondUser Username of the other user of the Conversation, which is the same as firstUser for a user's
+     *                   notes to themself
+     */
+    public Conversation(String firstUser, String secondUser){
+        this.firstUser = USERNAMES.getId(firstUser);
+        this.secondUser = USERNAMES.getId(secondUser);
+        this.messages = new ArrayList<>();
+        this.deleteCursors = new AtomicIntegerArray(2);
+        this.readCursors = new AtomicIntegerArray(2);
+    }
+
+    /** Creates an instance of Conversation whose Messages are only loaded once they are needed
+     *
+     * @param firstUser Username of one user of the Conversation
+     * @param secondUser Username of the other user of the Conversation, which is the same as firstUser for a user's
+     *                   notes to themself
+     * @param size Number of Messages in the Conversation
+     * @param lastTime Time of the latest Message in the Conversation
+     * @param loader Loads the Messages of the Conversation, in order of time
+     */
+    public Conversation(String firstUser, String secondUser, int size, LocalDateTime lastTime,
+                        Supplier<List<Message>> loader){
+        this.firstUser = USERNAMES.getId(firstUser);
+        this.secondUser = USERNAMES.getId(secondUser);
+        this.loader = loader;
+        this.size = size;
+        this.lastTime = lastTime;
+        this.numSavedMessages = size;
+        this.deleteCursors = new AtomicIntegerArray(2);
+        this.readCursors = new AtomicIntegerArray(2);
+    }
+
+    // Helper method, returns the log of Messages, loading it first if needed. Readers of the Conversation can get here
+    // at the same time, so the log is only loaded once.
+    private List<Message> messages() {
+        List<Message> loaded = messages;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = messages;
+                if (loaded == null) {
+                    loaded = new ArrayList<>(loader.get());
+                    // Stores written before the log was kept in order of time may have it out of order
+                    if (!isSortedByTime(loaded)) {
+                        loaded.sort(Comparator.comparing(Message::getTime));
+                    }
+                    loader = null;
+                    size = loaded.size();
+                    messages = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // Helper method, checks that every message in the list was sent at or after the one before it
+    private static boolean isSortedByTime(List<Message> messages) {
+        for (int i = 1; i < messages.size(); i++) {
+            if (messages.get(i).getTime().isBefore(messages.get(i - 1).getTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the usernames of the users of the Conversation
+     *
+     * @return List of one username for a user's notes to themself, or two usernames otherwise
+     */
+    public List<String> getUsers() {
+        if (firstUser == secondUser) {
+            return Collections.singletonList(USERNAMES.getUsername(firstUser));
+        }
+        return Arrays.asList(USERNAMES.getUsername(firstUser), USERNAMES.getUsername(secondUser));
+    }
+
+    /** Adds a Message to the Conversation, after every Message sent at or before its time
+     *
+     * @param message Message to be added
+     */
+    public void addMessage(Message message) {
+        List<Message> log = messages();
+        if (lastTime == null || !message.getTime().isBefore(lastTime)) {
+            log.add(message);
+            lastTime = message.getTime();
+        } else {
+            int position = countSentBy(log, message.getTime());
+            log.add(position, message);
+            moveCursors(deleteCursors, position);
+            moveCursors(readCursors, position);
+        }
+        size = log.size();
+    }
+
+    // Helper method, binary searches the messages for the number of them sent at or before the time
+    private static int countSentBy(List<Message> messages, LocalDateTime time) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (messages.get(mid).getTime().isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Helper method, moves the cursors that are past the position of an inserted Message along with the Messages
+    private static void moveCursors(AtomicIntegerArray cursors, int position) {
+        for (int i = 0; i < cursors.length(); i++) {
+            if (cursors.get(i) > position) {
+                cursors.incrementAndGet(i);
+            }
+        }
+    }
+
+    // Helper method, returns the index of the user's cursors, or -1 if the user is not in the Conversation
+    private int indexOf(String user) {
+        int id = USERNAMES.findId(user);
+        if (id == firstUser) {
+            return 0;
+        }
+        return id == secondUser ? 1 : -1;
+    }
+
+    /** Returns every Message of the Conversation, including the ones deleted by either user
+     *
+     * @return Read-only view of the Messages, in order of time
+     */
+    public List<Message> getMessages() { return Collections.unmodifiableList(messages()); }
+
+    /** Returns the Messages of the Conversation that the user has not deleted
+     *
+     * @param user Username of the user
+     * @return Read-only view of the Messages, in order of time
+     */
+    public List<Message> getMessages(String user) {
+        return Collections.unmodifiableList(messages().subList(getDeleteCursor(user), size));
+    }
+
+    /** Returns the number of Messages in the Conversation, including the ones deleted by either user
+     *
+     * @return Number of Messages
+     */
+    public int size() { return size; }
+
+    /** Returns the time of the latest Message in the Conversation, without loading the Messages
+     *
+     * @return Time of the latest Message, or null if there are no Messages
+     */
+    public LocalDateTime getLastTime() { return lastTime; }
+
+    /** Returns whether the Messages of the Conversation have been loaded
+     *
+     * @return true if the Messages are in memory, and false if they are yet to be loaded
+     */
+    public boolean isLoaded() { return messages != null; }
+
+    /** Returns whether Messages were added to the Conversation since it was last saved
+     *
+     * @return true if there are Messages that have not been saved yet, and false otherwise
+     */
+    public boolean hasUnsavedMessages() { return size > numSavedMessages; }
+
+    /** Records that the first Messages of the Conversation have been saved
+     *
+     * @param numMessages Number of Messages at the start of the log that have been saved
+     */
+    public void markSaved(int numMessages) { numSavedMessages = Math.max(numSavedMessages, numMessages); }
+
+    /** Returns the position in the log before which the user has deleted every Message
+     *
+     * @param user Username of the user
+     * @return Delete cursor of the user
+     */
+    public int getDeleteCursor(String user) {
+        int index = indexOf(user);
+        return index < 0 ? 0 : deleteCursors.get(index);
+    }
+
+    /** Sets the position in the log before which the user has deleted every Message
+     *
+     * @param user Username of the user
+     * @param cursor New delete cursor of the user
+     */
+    public void setDeleteCursor(String user, int cursor) {
+        int index = indexOf(user);
+        if (index >= 0) {
+            deleteCursors.set(index, Math.max(0, Math.min(cursor, size)));
+        }
+    }
+
+    /** Deletes every Message of the Conversation for the user only
+     *
+     * @param user Username of the user
+     */
+    public void deleteAll(String user) {
+        setDeleteCursor(user, size);
+        setReadCursor(user, size);
+    }
+
+    /** Returns whether the user has deleted every Message of the Conversation
+     *
+     * @param user Username of the user
+     * @return true if there are no Messages left for the user, and false otherwise
+     */
+    public boolean isDeleted(String user) { return getDeleteCursor(user) >= size; }
+
+    /** Returns the position in the log before which the user has read every Message
+     *
+     * @param user Username of the user
+     * @return Read cursor of the user
+     */
+    public int getReadCursor(String user) {
+        int index = indexOf(user);
+        return index < 0 ? 0 : readCursors.get(index);
+    }
+
+    /** Sets the position in the log before which the user has read every Message
+     *
+     * @param user Username of the user
+     * @param cursor New read cursor of the user
+     */
+    public void setReadCursor(String user, int cursor) {
+        int index = indexOf(user);
+        if (index >= 0) {
+            readCursors.set(index, Math.max(0, Math.min(cursor, size)));
+        }
+    }
+
+    /** Marks every Message of the Conversation as read by the user
+     *
+     * @param user Username of the user
+     */
+    public void markRead(String user) { setReadCursor(user, size); }
+
+    /** Returns the number of Messages that the user has neither read nor deleted
+     *
+     * @param user Username of the user
+     * @return Number of unread Messages
+     */
+    public int getNumUnread(String user) {
+        return size - Math.max(getReadCursor(user), getDeleteCursor(user));
+    }
+}
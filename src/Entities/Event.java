@@ -2,25 +2,36 @@ package Entities;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 
 /**
  * This class is one of the entity classes for this program, specifically for event.
+ * Besides its attendees, an event counts its taken seats, which are its attendees along with the seats reserved for
+ * sign-ups in progress. Seats are reserved with a compare-and-set on that count, so that an event is never overbooked
+ * and a full event turns sign-ups away without being locked.
+ * An event also has a version, which counts the changes to its room, capacity and speakers. Changes that depend on
+ * these, such as moving the event to another room, compare the version to check that they were not changed meanwhile.
  *
  */
 public class Event implements Comparable<Event> {
+    private static final UsernameTable USERNAMES = UsernameTable.getInstance();
+    private static final AtomicIntegerFieldUpdater<Event> SEATS_TAKEN =
+            AtomicIntegerFieldUpdater.newUpdater(Event.class, "seatsTaken");
+
     private String eventName;
-    private List<String> speakers;
-    private String organizer;
-    private List<String> attendees;
+    private UsernameSet speakers;
+    private int organizer;
+    private UsernameSet attendees;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private UUID id;
     private String roomName;
-    private int maxCapacity;
+    private volatile int maxCapacity;
+    private volatile int seatsTaken;
+    private volatile int version;
 
     /**
      * This constructor is for events with no speaker
@@ -36,13 +47,13 @@ public class Event implements Comparable<Event> {
     public Event(String eventName, String organizer, LocalDateTime startTime, LocalDateTime endTime, String roomName,
                  int maxCapacity){
         this.eventName = eventName;
-        this.speakers = new ArrayList<>();
-        this.organizer = organizer;
+        this.speakers = new UsernameSet();
+        this.organizer = USERNAMES.getId(organizer);
         this.startTime = startTime;
         this.endTime = endTime;
         this.roomName = roomName;
         this.maxCapacity = maxCapacity;
-        attendees = new ArrayList<>();
+        attendees = new UsernameSet();
         id = UUID.randomUUID();
     }
 
@@ -57,7 +68,7 @@ public class Event implements Comparable<Event> {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d MMM yyyy HH:mm");
         String formattedST = startTime.format(formatter);
         String formattedET = endTime.format(formatter);
-        return eventName + ", " + speakers + ", " + formattedST + "-" + formattedET + ", " + roomName + ", "
+        return eventName + ", " + speakers.toList() + ", " + formattedST + "-" + formattedET + ", " + roomName + ", "
                 + "maximum capacity: " + maxCapacity;
     }
 
@@ -77,7 +88,7 @@ public class Event implements Comparable<Event> {
      * @return username of event's organizer
      */
     public String getOrganizer(){
-        return organizer;
+        return USERNAMES.getUsername(organizer);
     }
 
     /**
@@ -86,15 +97,15 @@ public class Event implements Comparable<Event> {
      * @return all speakers in a string
      */
     public String convertSpeakerString(){
-        return String.join(", ", this.speakers);
+        return String.join(", ", this.speakers.toList());
     }
     /**
      * Implements Getter, getSpeaker, for speaker
      *
-     * @return username of speaker of event
+     * @return copy of the usernames of speakers of event
      */
     public List<String> getSpeakers(){ //phase 2
-        return speakers;
+        return speakers.toList();
     }
 
     /**
@@ -103,16 +114,137 @@ public class Event implements Comparable<Event> {
      * @param newSpeakers new speaker list
      */
     public void setSpeakers(List<String> newSpeakers){ //phase 2
-        this.speakers = newSpeakers;
+        this.speakers = new UsernameSet(newSpeakers);
+        version++;
+    }
+
+    /**
+     * Checks whether a user is one of the speakers.
+     *
+     * @param username username of the user
+     * @return a boolean indicating if the user is speaking at the event
+     */
+    public boolean hasSpeaker(String username){
+        return speakers.contains(username);
+    }
+
+    /**
+     * Adds a speaker to the event.
+     *
+     * @param username username of the speaker
+     * @return true if the speaker was added, and false if they were already speaking at the event
+     */
+    public boolean addSpeaker(String username){
+        if (!speakers.add(username)) {
+            return false;
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Removes a speaker from the event.
+     *
+     * @param username username of the speaker
+     * @return true if the speaker was removed, and false if they were not speaking at the event
+     */
+    public boolean removeSpeaker(String username){
+        if (!speakers.remove(username)) {
+            return false;
+        }
+        version++;
+        return true;
     }
 
     /**
      * Implements Getter, getAttendees, for attendees.
      *
-     * @return attendees of event
+     * @return copy of the attendees of event, in the order they signed up
      */
     public List<String> getAttendees(){
-        return attendees;
+        return attendees.toList();
+    }
+
+    /**
+     * Implements Getter, getNumAttendees, for the number of attendees.
+     *
+     * @return number of attendees of event
+     */
+    public int getNumAttendees(){
+        return attendees.size();
+    }
+
+    /**
+     * Checks whether a user is one of the attendees.
+     *
+     * @param username username of the user
+     * @return a boolean indicating if the user is attending the event
+     */
+    public boolean hasAttendee(String username){
+        return attendees.contains(username);
+    }
+
+    /**
+     * Adds an attendee to the event.
+     *
+     * @param username username of the new attendee
+     * @return a boolean indicating if the user was added, which is false if they were already attending
+     */
+    public boolean addAttendee(String username){
+        boolean added = attendees.add(username);
+        if (added) {
+            SEATS_TAKEN.incrementAndGet(this);
+        }
+        return added;
+    }
+
+    /**
+     * Reserves a seat for a sign-up, unless every seat is taken.
+     *
+     * @return a boolean indicating if a seat was reserved, which then has to be either given to an attendee with
+     * addReservedAttendee or released with releaseSeat
+     */
+    public boolean reserveSeat(){
+        int taken;
+        do {
+            taken = seatsTaken;
+            if (taken >= maxCapacity) {
+                return false;
+            }
+        } while (!SEATS_TAKEN.compareAndSet(this, taken, taken + 1));
+        return true;
+    }
+
+    /**
+     * Releases a seat reserved with reserveSeat that was not given to an attendee.
+     */
+    public void releaseSeat(){
+        SEATS_TAKEN.decrementAndGet(this);
+    }
+
+    /**
+     * Adds an attendee to the event in a seat reserved with reserveSeat.
+     *
+     * @param username username of the new attendee
+     * @return a boolean indicating if the user was added, which is false if they were already attending, in which case
+     * the seat is still reserved
+     */
+    public boolean addReservedAttendee(String username){
+        return attendees.add(username);
+    }
+
+    /**
+     * Removes an attendee from the event.
+     *
+     * @param username username of the attendee
+     * @return a boolean indicating if the user was removed, which is false if they were not attending
+     */
+    public boolean removeAttendee(String username){
+        boolean removed = attendees.remove(username);
+        if (removed) {
+            SEATS_TAKEN.decrementAndGet(this);
+        }
+        return removed;
     }
 
     /**
@@ -149,6 +281,7 @@ public class Event implements Comparable<Event> {
      */
     public void setRoomName(String roomName){
         this.roomName = roomName;
+        version++;
     }
 
     /**
@@ -169,15 +302,6 @@ public class Event implements Comparable<Event> {
         return id;
     }
 
-    /**
-     * Implements Setter, setAttendees, for attendees.
-     *
-     * @param attendees new attendees of event
-     */
-    public void setAttendees(List<String> attendees){
-        this.attendees = attendees;
-    }
-
     /**
      * Implements Setter, setId, for event id. (Use for file reading purposes only)
      *
@@ -192,7 +316,20 @@ public class Event implements Comparable<Event> {
      *
      * @param newCap new maximum capacity of event
      */
-    public void setMaxCapacity(int newCap){ this.maxCapacity = newCap; }
+    public void setMaxCapacity(int newCap){
+        this.maxCapacity = newCap;
+        version++;
+    }
+
+    /**
+     * Implements Getter, getVersion, for the version of event. The version only changes while the event is being
+     * changed by one thread at a time.
+     *
+     * @return number of changes made to the room, capacity and speakers of event
+     */
+    public int getVersion(){
+        return version;
+    }
 
     /**
      * Overrides the compareTo method, now allowing events to be sorted from earliest to latest start times
@@ -0,0 +1,91 @@
+package Entities;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * This class is one of the entity classes for this program, specifically for the inbox of a user.
+ * It stores the time of the last activity with each of the user's contacts, along with an index of the contacts
+ * ordered by that time. Contacts whose last activity happened at the same time are kept in the order of that activity.
+ * An inbox can be used by many threads at once, since it changes with every conversation of the user.
+ *
+ */
+public class Inbox {
+    private final HashMap<String, LocalDateTime> lastActivity;
+    private final TreeMap<LocalDateTime, Set<String>> contactsByActivity;
+
+    /**
+     * The constructor instantiates an empty inbox.
+     */
+    public Inbox(){
+        lastActivity = new HashMap<>();
+        contactsByActivity = new TreeMap<>();
+    }
+
+    /**
+     * Returns whether the contact is in the inbox.
+     *
+     * @param contact username of the contact
+     * @return true if the contact is in the inbox, and false otherwise
+     */
+    public synchronized boolean contains(String contact){
+        return lastActivity.containsKey(contact);
+    }
+
+    /**
+     * Returns the time of the last activity with the contact.
+     *
+     * @param contact username of the contact
+     * @return time of the last activity, or null if the contact is not in the inbox
+     */
+    public synchronized LocalDateTime getLastActivity(String contact){
+        return lastActivity.get(contact);
+    }
+
+    /**
+     * Records activity with the contact, adding them to the inbox if they are not in it yet. Activity older than the
+     * last recorded activity with the contact is ignored.
+     *
+     * @param contact username of the contact
+     * @param time time of the activity
+     */
+    public synchronized void update(String contact, LocalDateTime time){
+        LocalDateTime current = lastActivity.get(contact);
+        if (current != null && time.isBefore(current)) {
+            return;
+        }
+        remove(contact);
+        lastActivity.put(contact, time);
+        contactsByActivity.computeIfAbsent(time, k -> new LinkedHashSet<>()).add(contact);
+    }
+
+    /**
+     * Removes the contact from the inbox.
+     *
+     * @param contact username of the contact
+     */
+    public synchronized void remove(String contact){
+        LocalDateTime time = lastActivity.remove(contact);
+        if (time == null) {
+            return;
+        }
+        Set<String> contacts = contactsByActivity.get(time);
+        contacts.remove(contact);
+        if (contacts.isEmpty()) {
+            contactsByActivity.remove(time);
+        }
+    }
+
+    /**
+     * Returns the contacts in the inbox, from the least to the most recently active.
+     *
+     * @return list of usernames of the contacts
+     */
+    public synchronized List<String> getContacts(){
+        List<String> contacts = new ArrayList<>(lastActivity.size());
+        for (Set<String> sameTime : contactsByActivity.values()) {
+            contacts.addAll(sameTime);
+        }
+        return contacts;
+    }
+}
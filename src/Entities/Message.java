@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
  *
  */
 public class Message {
-    private final String sender;
-    private final String receiver;
+    private static final UsernameTable USERNAMES = UsernameTable.getInstance();
+
+    private final int sender;
+    private final int receiver;
     private final LocalDateTime time;
     private final String content;
 
@@ -19,8 +21,8 @@ public class Message {
      * @param content Content of Message
      */
     public Message(String sender, String receiver, String content){
-        this.sender = sender;
-        this.receiver = receiver;
+        this.sender = USERNAMES.getId(sender);
+        this.receiver = USERNAMES.getId(receiver);
         this.time = LocalDateTime.now();
         this.content = content;
     }
@@ -33,6 +35,11 @@ public class Message {
      * @param content Content of Message
      */
     public Message(String sender, String receiver, String content, LocalDateTime time){
+        this(USERNAMES.getId(sender), USERNAMES.getId(receiver), content, time);
+    }
+
+    // Creates an instance of Message from the ids of the Sender and Receiver in the UsernameTable
+    Message(int sender, int receiver, String content, LocalDateTime time){
         this.sender = sender;
         this.receiver = receiver;
         this.time = time;
@@ -43,13 +50,25 @@ public class Message {
      *
      * @return Username of Sender
      */
-    public String getSender() { return sender; }
+    public String getSender() { return USERNAMES.getUsername(sender); }
+
+    /** Returns the id of the Sender in the UsernameTable
+     *
+     * @return Id of Sender
+     */
+    public int getSenderId() { return sender; }
 
     /** Returns the username of the Receiver
      *
      * @return Username of Receiver
      */
-    public String getReceiver() { return receiver; }
+    public String getReceiver() { return USERNAMES.getUsername(receiver); }
+
+    /** Returns the id of the Receiver in the UsernameTable
+     *
+     * @return Id of Receiver
+     */
+    public int getReceiverId() { return receiver; }
 
     /** Returns the time of the Message
      *
@@ -2,18 +2,21 @@ package Entities;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * This class is one of the entity classes for this program, specifically for room.
+ * A room has a version, which counts the changes to its schedule, so that an event is only added to the schedule if
+ * it was not changed since it was checked for conflicts.
  *
  */
 public class Room {
     private final String roomName;
     private int capacity;
-    private HashMap<UUID, List<LocalDateTime>> schedule;
+    private final Schedule schedule;
+    private volatile int version;
 
     /**
      * The constructor takes name and maximum capacity of attendees allowed of a room and assigns each variable.
@@ -26,7 +29,7 @@ public class Room {
     public Room(String roomName, int capacity){
         this.roomName = roomName;
         this.capacity = capacity;
-        schedule = new HashMap<>();
+        schedule = new Schedule();
     }
 
     /**
@@ -53,25 +56,59 @@ public class Room {
      * @return list of events (identified by ID) occurring in the room
      */
     public List<UUID> getRoomEventIDs(){
-        return new ArrayList<>(schedule.keySet());
+        return new ArrayList<>(schedule.getTimeSlots().keySet());
     }
 
     /**
      * Implements Getter, getSchedule, for schedule.
      *
-     * @return schedule for room
+     * @return copy of the schedule for room
      */
-    public HashMap<UUID, List<LocalDateTime>> getSchedule(){
-        return schedule;
+    public Map<UUID, List<LocalDateTime>> getSchedule(){
+        return schedule.getTimeSlots();
     }
 
     /**
-     * Implements Setter, setRoomSchedule, for this room.
+     * Adds an event to the schedule of this room, replacing its previous time slot if it was already scheduled.
      *
-     * @param schedule updated schedule of room
+     * @param eventId id of the event
+     * @param start start time of the event
+     * @param end end time of the event
      */
-    public void setRoomSchedule(HashMap<UUID, List<LocalDateTime>> schedule){
-        this.schedule = schedule;
+    public void addToSchedule(UUID eventId, LocalDateTime start, LocalDateTime end){
+        schedule.add(eventId, start, end);
+        version++;
     }
 
+    /**
+     * Removes an event from the schedule of this room.
+     *
+     * @param eventId id of the event
+     */
+    public void removeFromSchedule(UUID eventId){
+        schedule.remove(eventId);
+        version++;
+    }
+
+    /**
+     * Implements Getter, getVersion, for the version of room. The version only changes while the schedule is being
+     * changed by one thread at a time.
+     *
+     * @return number of changes made to the schedule of room
+     */
+    public int getVersion(){
+        return version;
+    }
+
+    /**
+     * Finds the scheduled events whose time slots overlap with the given time period. Time slots that only touch the
+     * period at its start or end do not overlap with it.
+     *
+     * @param start start of the time period
+     * @param end end of the time period
+     * @return ids of the events overlapping with the time period, sorted by start time
+     */
+    public List<UUID> getOverlappingEvents(LocalDateTime start, LocalDateTime end){
+        return schedule.getOverlapping(start, end, false);
+    }
 }
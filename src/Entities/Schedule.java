@@ -0,0 +1,97 @@
+package Entities;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * This class is one of the entity classes for this program, specifically for a schedule of time slots.
+ * It stores a map of event ids to their time slots, along with an index of the event ids ordered by start time.
+ * A schedule can be used by many threads at once, since the schedule of a user changes with every event they are in.
+ *
+ */
+public class Schedule {
+    private final HashMap<UUID, List<LocalDateTime>> timeSlots;
+    private final TreeMap<LocalDateTime, Set<UUID>> timeSlotsByStart;
+    private Duration longestTimeSlot;
+
+    /**
+     * The constructor instantiates an empty schedule.
+     */
+    public Schedule(){
+        timeSlots = new HashMap<>();
+        timeSlotsByStart = new TreeMap<>();
+        longestTimeSlot = Duration.ZERO;
+    }
+
+    /**
+     * Implements Getter, getTimeSlots, for timeSlots.
+     *
+     * @return copy of the map of event ids to their start and end times
+     */
+    public synchronized Map<UUID, List<LocalDateTime>> getTimeSlots(){
+        return new LinkedHashMap<>(timeSlots);
+    }
+
+    /**
+     * Adds an event to the schedule, replacing its previous time slot if it was already scheduled.
+     *
+     * @param eventId id of the event
+     * @param start start time of the event
+     * @param end end time of the event
+     */
+    public synchronized void add(UUID eventId, LocalDateTime start, LocalDateTime end){
+        remove(eventId);
+        timeSlots.put(eventId, Arrays.asList(start, end));
+        timeSlotsByStart.computeIfAbsent(start, k -> new LinkedHashSet<>()).add(eventId);
+        Duration length = Duration.between(start, end);
+        if (length.compareTo(longestTimeSlot) > 0) {
+            longestTimeSlot = length;
+        }
+    }
+
+    /**
+     * Removes an event from the schedule.
+     *
+     * @param eventId id of the event
+     */
+    public synchronized void remove(UUID eventId){
+        List<LocalDateTime> timeSlot = timeSlots.remove(eventId);
+        if (timeSlot == null) {
+            return;
+        }
+        Set<UUID> ids = timeSlotsByStart.get(timeSlot.get(0));
+        ids.remove(eventId);
+        if (ids.isEmpty()) {
+            timeSlotsByStart.remove(timeSlot.get(0));
+        }
+    }
+
+    /**
+     * Finds the scheduled events whose time slots overlap with the given time period.
+     *
+     * Only events starting no more than the longest time slot before start can overlap, so just that part of the
+     * start time index is searched.
+     *
+     * @param start start of the time period
+     * @param end end of the time period
+     * @param includeTouching whether time slots that only touch the period at its start or end count as overlapping
+     * @return ids of the events overlapping with the time period, sorted by start time
+     */
+    public synchronized List<UUID> getOverlapping(LocalDateTime start, LocalDateTime end, boolean includeTouching){
+        List<UUID> overlapping = new ArrayList<>();
+        if (end.isBefore(start) || (!includeTouching && !start.isBefore(end))) {
+            return overlapping;
+        }
+        LocalDateTime earliest = start.minus(longestTimeSlot);
+        for (Set<UUID> ids : timeSlotsByStart.subMap(earliest, includeTouching, end, includeTouching).values()) {
+            for (UUID id : ids) {
+                LocalDateTime existingEnd = timeSlots.get(id).get(1);
+                if (existingEnd.isAfter(start) || (includeTouching && existingEnd.equals(start))) {
+                    overlapping.add(id);
+                }
+            }
+        }
+        return overlapping;
+    }
+}
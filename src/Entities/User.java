@@ -15,7 +15,7 @@ public class User {
     private String password;
     private final UserType userType;
     private List<UUID> eventsAttending;
-    private List<String> friends;
+    private UsernameSet friends;
 
     /** Creates an instance of User
      *
@@ -30,7 +30,7 @@ public class User {
         this.username = username;
         this.password = password;
         this.eventsAttending = new ArrayList<>();
-        this.friends = new ArrayList<>();
+        this.friends = new UsernameSet();
     }
 
     /** Setter for name of User
@@ -62,7 +62,16 @@ public class User {
      * @param friends List of friend usernames
      */
     public void setFriends(List<String> friends) {
-        this.friends = friends;
+        this.friends = new UsernameSet(friends);
+    }
+
+    /** Adds a friend to the User's friends, unless they already are one
+     *
+     * @param friend Username of the friend
+     * @return true if the friend was added, and false if they already were a friend
+     */
+    public boolean addFriend(String friend) {
+        return friends.add(friend);
     }
 
     /** Returns the name of the User
@@ -107,10 +116,10 @@ public class User {
 
     /** Returns the list of friends that the user can message
      *
-     * @return List of User's friends
+     * @return Copy of the list of User's friends
      */
     public List<String> getFriends() {
-        return friends;
+        return friends.toList();
     }
 }
 
@@ -0,0 +1,206 @@
+package Entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class is one of the entity classes for this program, specifically for a set of users.
+ * The users are stored as their ids in the UsernameTable, in the order they were added, along with a hash table of
+ * their positions, so checking whether a user is in the set does not go through the list. It takes a few ints per
+ * user, where a LinkedHashSet of usernames takes an entry object of several references per user.
+ * A removed user is only marked as removed, in both the list and the hash table, so removing takes constant time like
+ * in a LinkedHashSet. The list is compacted once more than half of it is removed users.
+ *
+ */
+public class UsernameSet {
+    private static final UsernameTable USERNAMES = UsernameTable.getInstance();
+    // Shared by the empty sets, which are never written to, since most users have no friends and most events no
+    // speakers yet
+    private static final int[] NO_IDS = new int[0];
+    private static final int[] NO_SLOTS = new int[1];
+    // Marks a removed user in ids, which is never a valid id
+    private static final int REMOVED = -1;
+    // Marks the slot of a removed user in the hash table, which lookups go past but insertions may reuse
+    private static final int TOMBSTONE = -1;
+
+    private int[] ids;
+    // Number of users in the set
+    private int size;
+    // Number of positions of ids in use, including the removed users
+    private int end;
+    // Open addressing hash table of positions in ids plus one, where 0 is an empty slot. The used slots, including the
+    // tombstones, are kept at most half of it.
+    private int[] slots;
+    private int usedSlots;
+
+    /**
+     * Creates an empty UsernameSet
+     */
+    public UsernameSet() {
+        ids = NO_IDS;
+        slots = NO_SLOTS;
+    }
+
+    /** Creates a UsernameSet of the usernames, in their order
+     *
+     * @param usernames The usernames
+     */
+    public UsernameSet(Collection<String> usernames) {
+        this();
+        for (String username : usernames) {
+            add(username);
+        }
+    }
+
+    /** Returns the number of users in the set
+     *
+     * @return Number of users
+     */
+    public int size() { return size; }
+
+    /** Returns whether the user is in the set
+     *
+     * @param username Username of the user
+     * @return true if the user is in the set, and false otherwise
+     */
+    public boolean contains(String username) {
+        int id = USERNAMES.findId(username);
+        return id >= 0 && containsId(id);
+    }
+
+    /** Returns whether the user with the id is in the set
+     *
+     * @param id Id of the user in the UsernameTable
+     * @return true if the user is in the set, and false otherwise
+     */
+    public boolean containsId(int id) {
+        return slots[findSlot(id)] > 0;
+    }
+
+    /** Adds the user to the end of the set, unless it is already in it
+     *
+     * @param username Username of the user
+     * @return true if the user was added, and false if it was already in the set
+     */
+    public boolean add(String username) {
+        return addId(USERNAMES.getId(username));
+    }
+
+    /** Adds the user with the id to the end of the set, unless it is already in it
+     *
+     * @param id Id of the user in the UsernameTable
+     * @return true if the user was added, and false if it was already in the set
+     */
+    public boolean addId(int id) {
+        if (containsId(id)) {
+            return false;
+        }
+        if (end == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, end * 2));
+        }
+        ids[end++] = id;
+        size++;
+        if ((usedSlots + 1) * 2 > slots.length) {
+            rehash();
+        } else {
+            int slot = findFreeSlot(id);
+            if (slots[slot] == 0) {
+                usedSlots++;
+            }
+            slots[slot] = end;
+        }
+        return true;
+    }
+
+    /** Removes the user from the set, keeping the order of the other users
+     *
+     * @param username Username of the user
+     * @return true if the user was removed, and false if it was not in the set
+     */
+    public boolean remove(String username) {
+        int id = USERNAMES.findId(username);
+        if (id < 0) {
+            return false;
+        }
+        int slot = findSlot(id);
+        if (slots[slot] <= 0) {
+            return false;
+        }
+        ids[slots[slot] - 1] = REMOVED;
+        slots[slot] = TOMBSTONE;
+        size--;
+        if ((end - size) * 2 > end) {
+            compact();
+        }
+        return true;
+    }
+
+    /** Returns the usernames of the users in the set
+     *
+     * @return New list of the usernames, in the order they were added
+     */
+    public List<String> toList() {
+        List<String> usernames = new ArrayList<>(size);
+        for (int i = 0; i < end; i++) {
+            if (ids[i] != REMOVED) {
+                usernames.add(USERNAMES.getUsername(ids[i]));
+            }
+        }
+        return usernames;
+    }
+
+    // Helper method, finds the slot of the id, or the empty slot where a lookup of it stops
+    private int findSlot(int id) {
+        int mask = slots.length - 1;
+        int slot = hash(id) & mask;
+        while (slots[slot] != 0 && (slots[slot] == TOMBSTONE || ids[slots[slot] - 1] != id)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Helper method, finds the first tombstone or empty slot for an id that is not in the set
+    private int findFreeSlot(int id) {
+        int mask = slots.length - 1;
+        int slot = hash(id) & mask;
+        while (slots[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+
+    // Helper method, drops the removed users from ids and rebuilds the hash table
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < end; i++) {
+            if (ids[i] != REMOVED) {
+                ids[live++] = ids[i];
+            }
+        }
+        end = live;
+        rehash();
+    }
+
+    // Helper method, rebuilds the hash table from the ids, without tombstones, at twice the size of the users or more
+    private void rehash() {
+        int capacity = 8;
+        while (capacity < size * 4) {
+            capacity *= 2;
+        }
+        slots = new int[capacity];
+        usedSlots = 0;
+        for (int i = 0; i < end; i++) {
+            if (ids[i] != REMOVED) {
+                slots[findFreeSlot(ids[i])] = i + 1;
+                usedSlots++;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package Entities;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is one of the entity classes for this program, specifically for the table of every username.
+ * Each username is given a dense int id the first time it is seen, and keeps it until the program stops. The entities
+ * store the ids instead of the usernames, so each username is only stored once however many events, friends and
+ * messages it appears in, and comparing two users is comparing two ints.
+ * The table is shared by every manager, and can be used from the threads that read them at the same time. Looking up
+ * an id or a username does not lock.
+ *
+ */
+public final class UsernameTable {
+    private static final UsernameTable INSTANCE = new UsernameTable();
+
+    private final ConcurrentHashMap<String, Integer> ids;
+    private volatile String[] usernames;
+    private int size;
+
+    private UsernameTable() {
+        ids = new ConcurrentHashMap<>();
+        usernames = new String[1024];
+    }
+
+    /** Returns the table shared by every manager
+     *
+     * @return UsernameTable
+     */
+    public static UsernameTable getInstance() {
+        return INSTANCE;
+    }
+
+    /** Returns the id of the username, giving it the next id if it does not have one yet
+     *
+     * @param username The username
+     * @return Id of the username
+     */
+    public int getId(String username) {
+        Integer id = ids.get(username);
+        return id != null ? id : addUsername(username);
+    }
+
+    /** Returns the id of the username without giving it one, for looking a user up
+     *
+     * @param username The username
+     * @return Id of the username, or -1 if it does not have one, in which case no entity has that user
+     */
+    public int findId(String username) {
+        Integer id = ids.get(username);
+        return id != null ? id : -1;
+    }
+
+    /** Returns the username that has the id
+     *
+     * @param id Id returned by getId
+     * @return The username
+     */
+    public String getUsername(int id) {
+        return usernames[id];
+    }
+
+    // Helper method, gives the username the next id. The username is stored before its id is published in the map,
+    // so a thread that finds the id always finds the username.
+    private synchronized int addUsername(String username) {
+        Integer id = ids.get(username);
+        if (id != null) {
+            return id;
+        }
+        String[] table = usernames;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+        }
+        table[size] = username;
+        usernames = table;
+        ids.put(username, size);
+        return size++;
+    }
+}
@@ -1,6 +1,8 @@
 package GUI.AdminGUI;
 
 import GUI.SceneParents.EventInfoController;
+import UseCases.SchedulingManager;
+import UseCases.SchedulingResult;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -11,21 +13,23 @@ import javafx.scene.control.Alert;
 public class EventInfoDeleteController extends EventInfoController {
 
     /**
-     * Handles the action when the Delete button is clicked. Deletes the event that was clicked.
+     * Handles the action when the Delete button is clicked. Deletes the event that was clicked, unless it was already
+     * deleted, in which case an error is shown. Either way the list of events is reloaded.
      */
     @FXML public void handleDeleteButton(ActionEvent event){
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setHeaderText(null);
+        SchedulingManager schedulingManager = new SchedulingManager(getEventManager(), getUserManager(),
+                getRoomManager());
+        SchedulingResult result = schedulingManager.cancelEvent(getEventID());
 
-        if(!getSpeakersList().isEmpty()){
-            for(String speaker: getSpeakersList().split(",")){
-                getUserManager().removeEventAttending(speaker, getEventID());
-            }
+        Alert alert;
+        if (result == SchedulingResult.DONE) {
+            alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setContentText("Successfully Deleted!");
+        } else {
+            alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText("This event no longer exists.");
         }
-
-        getEventManager().removeEvent(getEventID());
-        getRoomManager().removeEventFromRoom(getEventID(), getRoom());
-        alert.setContentText("Successfully Deleted!");
+        alert.setHeaderText(null);
         alert.showAndWait();
         setChanged();
         notifyObservers();
@@ -1,8 +1,10 @@
 package GUI.AttendeeGUI.AvailableEvents;
 
-import GUI.DataHolders.ManagersStorage;
+import GUI.DataHolders.AsyncManagers;
 import GUI.SceneParents.DisplayEventsController;
 import UseCases.EventManager;
+import javafx.fxml.FXML;
+import javafx.scene.control.ScrollPane;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,16 +15,91 @@ import java.util.UUID;
  * The subscene where available events are displayed
  */
 public class DisplayAvailableEventsController extends DisplayEventsController {
-    private EventManager eventManager;
+    private static final int PAGE_SIZE = 32;
+
+    private LocalDateTime currTime;
+    private LocalDateTime lastStartTime;
+    private UUID lastEventID;
+    private boolean hasMoreEvents;
+    private boolean loading;
+
+    @FXML private ScrollPane container;
 
     /**
-     * Initializes the Available Events scene.
+     * Initializes the Available Events scene. Only the first page of events is displayed, and the next page is loaded
+     * whenever the user scrolls to the bottom. Pages are read on a worker thread, one at a time.
      */
     public void initialize(){
-        this.eventManager = ManagersStorage.getInstance().getEventManager();
-        LocalDateTime currTime = LocalDateTime.now();
-        List<UUID> availableEventIDs = eventManager.getAvailableEvents(currTime);
-        List<List<String>> eventsInfo = eventManager.getAllEventsInfo(availableEventIDs);
-        generateEventButtons("EventInfoSignUp", eventsInfo);
+        this.currTime = LocalDateTime.now();
+        loadNextPage(true);
+        container.vvalueProperty().addListener((obj, oldVal, newVal) -> {
+            if (hasMoreEvents && !loading && newVal.doubleValue() >= container.getVmax()) {
+                loadNextPage(false);
+            }
+        });
+    }
+
+    /**
+     * Reads the next page of available events on a worker thread, and displays it once it is read. If the page could
+     * not be read, it is read again the next time the user scrolls to the bottom.
+     *
+     * @param first whether this is the first page, which replaces the event buttons instead of following them
+     */
+    private void loadNextPage(boolean first){
+        loading = true;
+        LocalDateTime afterTime = lastStartTime;
+        UUID afterID = lastEventID;
+        AsyncManagers.onFxThread(AsyncManagers.getInstance().withEventManager(
+                eventManager -> getNextPage(eventManager, afterTime, afterID)), page -> {
+            hasMoreEvents = page.full;
+            if (page.lastEventID != null) {
+                lastStartTime = page.lastStartTime;
+                lastEventID = page.lastEventID;
+            }
+            if (first) {
+                generateEventButtons("EventInfoSignUp", page.eventsInfo);
+            } else {
+                appendEventButtons("EventInfoSignUp", page.eventsInfo);
+            }
+        }).whenCompleteAsync((result, e) -> loading = false, AsyncManagers.fxThread());
+    }
+
+    /**
+     * Gets the next page of available events, along with the start time and ID of the last event in it
+     *
+     * @param eventManager EventManager holding the events
+     * @param afterTime start time of the last event already displayed, or null if none are
+     * @param afterID ID of the last event already displayed, or null if none are
+     * @return page of at most PAGE_SIZE events following the ones already displayed
+     */
+    private Page getNextPage(EventManager eventManager, LocalDateTime afterTime, UUID afterID){
+        List<UUID> availableEventIDs;
+        if (afterID == null) {
+            availableEventIDs = eventManager.getNextEvents(currTime, PAGE_SIZE);
+        } else {
+            availableEventIDs = eventManager.getNextEvents(afterTime, afterID, PAGE_SIZE);
+        }
+        Page page = new Page();
+        page.full = availableEventIDs.size() == PAGE_SIZE;
+        page.eventsInfo = eventManager.getAllEventsInfo(availableEventIDs);
+        // An event removed since the page was read has no start time, so the page ends at the last one that has
+        for (int i = availableEventIDs.size() - 1; i >= 0 && page.lastEventID == null; i--) {
+            LocalDateTime startTime = eventManager.getEventStartTime(availableEventIDs.get(i));
+            if (startTime != null) {
+                page.lastStartTime = startTime;
+                page.lastEventID = availableEventIDs.get(i);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * A page of available events read on a worker thread
+     */
+    private static final class Page {
+        private List<List<String>> eventsInfo;
+        private LocalDateTime lastStartTime;
+        private UUID lastEventID;
+        private boolean full;
     }
 }
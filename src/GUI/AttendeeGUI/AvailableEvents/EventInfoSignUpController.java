@@ -1,11 +1,12 @@
 package GUI.AttendeeGUI.AvailableEvents;
 
 import GUI.SceneParents.EventInfoController;
+import UseCases.SignUpManager;
+import UseCases.SignUpResult;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,22 +19,24 @@ public class EventInfoSignUpController extends EventInfoController {
      * Handles action of when the signup button is clicked. Signs up attendee to the chosen event
      */
     @FXML public void handleSignUpButton(){
-        List<UUID> schedule = getUserManager().getEventsAttending(getUsername());
+        SignUpManager signUpManager = new SignUpManager(getEventManager(), getUserManager());
+        SignUpResult result = signUpManager.signUp(getEventID(), getUsername());
 
-        if(getEventManager().isAttending(getEventID(), getUsername())) {
+        if(result == SignUpResult.ALREADY_ATTENDING) {
             alert("You're already signed up to the event");
-        }else if(getEventManager().scheduleOverlap(getEventID(), schedule)){
+        }else if(result == SignUpResult.CONFLICT){
+            List<UUID> conflicts = getEventManager().getScheduleConflicts(getUsername(), getEventID());
             String startTime = getEventManager().getEventStartTime(getEventID()).toString();
             String endTime = getEventManager().getEventEndTime(getEventID()).toString();
-            alert("You have an event conflict at this time slot, cancel your other events that take place during " +
-                    startTime + " to " + endTime + ", to sign up for this event.");
-        }else if(getEventManager().isFull(getEventID())){
+            String conflictName = conflicts.isEmpty() ? "the conflicting event"
+                    : getEventManager().getEventName(conflicts.get(0));
+            alert("You have an event conflict at this time slot, cancel " + conflictName + " and any other events " +
+                    "that take place during " + startTime + " to " + endTime + ", to sign up for this event.");
+        }else if(result == SignUpResult.FULL){
             alert("Sorry, this event is fully booked. And no, you are not special enough to warrant an exception.");
-        }else if(getEventManager().getEventStartTime(getEventID()).isBefore(LocalDateTime.now())){
+        }else if(result == SignUpResult.CLOSED){
             alert("Sorry, this event is no longer available for sign up.");
         }else {
-            getEventManager().addAttendee(getEventID(), getUsername());
-            getUserManager().addEventAttending(getUsername(), getEventID());
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setHeaderText(null);
             alert.setContentText("Signed Up!");
@@ -24,6 +24,6 @@ public class DisplayMyEventsController extends DisplayEventsController {
      */
     public void initialize(){
         super.initialize();
-        generateEventButtons("EventInfoCancel", getEventsInfo());
+        displayMyEvents("EventInfoCancel");
     }
 }
@@ -0,0 +1,143 @@
+package GUI.DataHolders;
+
+import UseCases.EventManager;
+import UseCases.MessageManager;
+import UseCases.RoomManager;
+import UseCases.UserManager;
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * This class lets the scenes use the managers without blocking the JavaFX application thread. Each task is run on a
+ * worker thread once the managers it needs are read, and its result is returned as a future. A scene applies the
+ * result with onFxThread, which runs it on the JavaFX application thread, where the scene may be changed.
+ * The managers are safe to use from many threads at once, so tasks from different scenes may run at the same time.
+ */
+public final class AsyncManagers {
+    private static final AsyncManagers INSTANCE = new AsyncManagers(ManagersStorage.getInstance());
+
+    private final ManagersStorage storage;
+    private final ExecutorService workers;
+
+    private AsyncManagers(ManagersStorage storage) {
+        this.storage = storage;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-managers-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Gets the AsyncManagers instance that is initialized when program is run
+     *
+     * @return AsyncManagers
+     */
+    public static AsyncManagers getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs a task with the UserManager on a worker thread.
+     *
+     * @param task Task to run
+     * @param <T> Type of the result of the task
+     * @return Future of the result of the task
+     */
+    public <T> CompletableFuture<T> withUserManager(Function<UserManager, T> task) {
+        return storage.getUserManagerFuture().thenApplyAsync(task, workers);
+    }
+
+    /**
+     * Runs a task with the EventManager on a worker thread.
+     *
+     * @param task Task to run
+     * @param <T> Type of the result of the task
+     * @return Future of the result of the task
+     */
+    public <T> CompletableFuture<T> withEventManager(Function<EventManager, T> task) {
+        return storage.getEventManagerFuture().thenApplyAsync(task, workers);
+    }
+
+    /**
+     * Runs a task with the MessageManager on a worker thread. The MessageManager starts being read if it has not been
+     * yet.
+     *
+     * @param task Task to run
+     * @param <T> Type of the result of the task
+     * @return Future of the result of the task
+     */
+    public <T> CompletableFuture<T> withMessageManager(Function<MessageManager, T> task) {
+        return storage.getMessageManagerFuture().thenApplyAsync(task, workers);
+    }
+
+    /**
+     * Runs a task with the RoomManager on a worker thread.
+     *
+     * @param task Task to run
+     * @param <T> Type of the result of the task
+     * @return Future of the result of the task
+     */
+    public <T> CompletableFuture<T> withRoomManager(Function<RoomManager, T> task) {
+        return storage.getRoomManagerFuture().thenApplyAsync(task, workers);
+    }
+
+    /**
+     * Runs a task with both the UserManager and the EventManager on a worker thread, once both are read.
+     *
+     * @param task Task to run
+     * @param <T> Type of the result of the task
+     * @return Future of the result of the task
+     */
+    public <T> CompletableFuture<T> withUserAndEventManagers(BiFunction<UserManager, EventManager, T> task) {
+        return storage.getUserManagerFuture().thenCombineAsync(storage.getEventManagerFuture(), task, workers);
+    }
+
+    /**
+     * Runs a task with both the UserManager and the MessageManager on a worker thread, once both are read.
+     *
+     * @param task Task to run
+     * @param <T> Type of the result of the task
+     * @return Future of the result of the task
+     */
+    public <T> CompletableFuture<T> withUserAndMessageManagers(BiFunction<UserManager, MessageManager, T> task) {
+        return storage.getUserManagerFuture().thenCombineAsync(storage.getMessageManagerFuture(), task, workers);
+    }
+
+    /**
+     * Returns the executor that runs tasks on the JavaFX application thread, for the stages of a future that change
+     * the scene.
+     *
+     * @return Executor of the JavaFX application thread
+     */
+    public static Executor fxThread() {
+        return Platform::runLater;
+    }
+
+    /**
+     * Applies the result of a future on the JavaFX application thread once it is completed. If the task failed, the
+     * failure is printed instead.
+     *
+     * @param future Future of the result
+     * @param action Action that applies the result to the scene
+     * @param <T> Type of the result
+     * @return Future that is completed once the result is applied
+     */
+    public static <T> CompletableFuture<Void> onFxThread(CompletableFuture<T> future, Consumer<T> action) {
+        return future.thenAcceptAsync(action, fxThread()).exceptionally(e -> {
+            (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).printStackTrace();
+            return null;
+        });
+    }
+}
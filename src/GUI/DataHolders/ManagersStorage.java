@@ -1,33 +1,80 @@
 package GUI.DataHolders;
 
 import Gateways.EventGateway;
+import Gateways.JournalGateway;
 import Gateways.MessageGateway;
 import Gateways.RoomGateway;
+import Gateways.SnapshotFiles;
+import Gateways.SnapshotReader;
 import Gateways.UserGateway;
 import UseCases.EventManager;
+import UseCases.Journal;
 import UseCases.MessageManager;
 import UseCases.RoomManager;
 import UseCases.UserManager;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class is used to save and read all the information of the program.
+ * The managers are saved as binary snapshots, which are read instead of the JSON files whenever they exist. The JSON
+ * files are only read when there is no snapshot yet, and can be written again with exportToJSON, which is run by
+ * ServerApplication when it is started with --export-json. The MessageManager is saved as a store instead, where the
+ * messages are split over segment files, so that only the conversations that are opened are read and only the
+ * segments with new messages are written.
+ * Every change made through the managers is appended to a journal as soon as it is made. The journal is replayed on
+ * top of the saved managers when the program starts, and is emptied whenever the managers are saved, which happens
+ * once it holds COMPACTION_THRESHOLD changes, and every autosave interval once startAutosave is called.
+ * The managers can be changed from many threads at once. Saving happens on a background writer thread, which holds
+ * back the changes to the managers only while it rotates the journal and copies their state. The snapshot is then
+ * encoded from the copy and written one file at a time, with changes let through, each file to a temporary file that
+ * is then renamed over the saved file. A save that is cut short therefore leaves
+ * every file either as it was or fully replaced, and the journal files are only deleted once the whole snapshot has
+ * been written.
+ * The managers are read on background threads, so getInstance returns right away. The UserManager is read first, since
+ * the login screen needs it, and the EventManager and RoomManager are read in the background once it is ready. The
+ * MessageManager, which is by far the largest, is only read once it is first asked for. The getters wait for their
+ * manager to be read, and the futures let a caller start using one manager as soon as it is ready.
  */
 public final class ManagersStorage {
+    private static final int COMPACTION_THRESHOLD = 1000;
+
     private UserGateway userGateway;
     private EventGateway eventGateway;
     private MessageGateway messageGateway;
     private RoomGateway roomGateway;
+    private JournalGateway journalGateway;
     private File userInfo = new File("./src/Data/userManager.json");
     private File eventInfo = new File("./src/Data/eventManager.json");
     private File messageInfo = new File("./src/Data/messageManager.json");
     private File roomInfo = new File("./src/Data/roomManager.json");
-    private UserManager userManager;
-    private EventManager eventManager;
-    private MessageManager messageManager;
-    private RoomManager roomManager;
+    private File userSnapshot = new File("./src/Data/userManager.snapshot");
+    private File eventSnapshot = new File("./src/Data/eventManager.snapshot");
+    private File messageSnapshot = new File("./src/Data/messageManager.snapshot");
+    private File messageStore = new File("./src/Data/messages");
+    private File roomSnapshot = new File("./src/Data/roomManager.snapshot");
+    private File journalInfo = new File("./src/Data/journal.jsonl");
+    private ExecutorService loader;
+    private ManagerLoader<UserManager> userManager;
+    private ManagerLoader<EventManager> eventManager;
+    private ManagerLoader<MessageManager> messageManager;
+    private ManagerLoader<RoomManager> roomManager;
+    private ExecutorService writer;
+    private ScheduledExecutorService autosave;
+    private final Object loaders = new Object();
+    private long generation;
+    private final AtomicBoolean saving = new AtomicBoolean();
 
     private final static ManagersStorage INSTANCE = new ManagersStorage();
 
@@ -36,14 +83,138 @@ public final class ManagersStorage {
         eventGateway = new EventGateway();
         messageGateway = new MessageGateway();
         roomGateway = new RoomGateway();
+        journalGateway = new JournalGateway(journalInfo.getPath());
         try {
-            userManager = userGateway.readFromFile(userInfo.getPath());
-            eventManager = eventGateway.readFromFile(eventInfo.getPath());
-            messageManager = messageGateway.readFromFile(messageInfo.getPath());
-            roomManager = roomGateway.readFromFile(roomInfo.getPath());
+            journalGateway.read();
+            generation = Math.max(journalGateway.getLastGeneration(),
+                    Math.max(Math.max(SnapshotReader.readGeneration(userSnapshot.getPath()),
+                            SnapshotReader.readGeneration(eventSnapshot.getPath())),
+                            Math.max(SnapshotReader.readGeneration(roomSnapshot.getPath()),
+                                    MessageGateway.readStoreGeneration(messageStore.getPath()))));
         }catch (IOException e){
             e.printStackTrace();
         }
+
+        loader = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "managers-storage-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "managers-storage-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        userManager = new ManagerLoader<>(() -> {
+            String path = savedPath(userSnapshot, userInfo);
+            UserManager um = userGateway.readFromFile(path);
+            um.markSaved(um.getVersion());
+            journalGateway.replay(um, SnapshotReader.readGeneration(path));
+            um.setJournal(journalFor("user"));
+            return um;
+        });
+        eventManager = new ManagerLoader<>(() -> {
+            String path = savedPath(eventSnapshot, eventInfo);
+            EventManager em = eventGateway.readFromFile(path);
+            em.markSaved(em.getVersion());
+            journalGateway.replay(em, SnapshotReader.readGeneration(path));
+            em.setJournal(journalFor("event"));
+            return em;
+        });
+        messageManager = new ManagerLoader<>(() -> {
+            MessageManager mm;
+            long savedGeneration;
+            if (MessageGateway.isStore(messageStore.getPath())) {
+                mm = messageGateway.readFromStore(messageStore.getPath());
+                savedGeneration = MessageGateway.readStoreGeneration(messageStore.getPath());
+            } else {
+                String path = savedPath(messageSnapshot, messageInfo);
+                mm = messageGateway.readFromFile(path);
+                savedGeneration = SnapshotReader.readGeneration(path);
+            }
+            mm.markSaved(mm.getVersion());
+            journalGateway.replay(mm, savedGeneration);
+            mm.setJournal(journalFor("message"));
+            return mm;
+        });
+        roomManager = new ManagerLoader<>(() -> {
+            String path = savedPath(roomSnapshot, roomInfo);
+            RoomManager rm = roomGateway.readFromFile(path);
+            rm.markSaved(rm.getVersion());
+            journalGateway.replay(rm, SnapshotReader.readGeneration(path));
+            rm.setJournal(journalFor("room"));
+            return rm;
+        });
+
+        userManager.start().thenRun(() -> {
+            eventManager.start();
+            roomManager.start();
+        });
+    }
+
+    // Reads a manager from its file
+    private interface ManagerReader<T> {
+        T read() throws IOException;
+    }
+
+    // Reads a manager on a loader thread the first time it is started, and holds the future of the manager
+    private final class ManagerLoader<T> {
+        private final ManagerReader<T> reader;
+        private volatile CompletableFuture<T> future;
+
+        private ManagerLoader(ManagerReader<T> reader) {
+            this.reader = reader;
+        }
+
+        // Returns whether the manager has started being read
+        private boolean isStarted() {
+            return future != null;
+        }
+
+        // Starts reading the manager unless it has already been started, and returns its future. Managers do not
+        // start being read while a snapshot is taken, since they could then be changed while the journal is rotated.
+        private CompletableFuture<T> start() {
+            CompletableFuture<T> started = future;
+            if (started != null) {
+                return started;
+            }
+            synchronized (loaders) {
+                if (future == null) {
+                    future = CompletableFuture.supplyAsync(() -> read(reader), loader);
+                }
+                return future;
+            }
+        }
+    }
+
+    // Helper method, reads a manager on a loader thread. A manager that cannot be read fails its future, so that
+    // nothing is saved over its file.
+    private static <T> T read(ManagerReader<T> reader) {
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Helper method, returns the path of the snapshot if it has been saved, and the path of the JSON file otherwise
+    private static String savedPath(File snapshot, File json) {
+        return snapshot.exists() ? snapshot.getPath() : json.getPath();
+    }
+
+    // Helper method, creates the journal that the changes made through a manager are appended to
+    private Journal journalFor(String manager) {
+        return (operation, args) -> {
+            try {
+                journalGateway.append(manager, operation, args);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (journalGateway.getNumRecords() >= COMPACTION_THRESHOLD) {
+                saveInBackground();
+            }
+        };
     }
 
     /**
@@ -56,50 +227,279 @@ public final class ManagersStorage {
     }
 
     /**
-     * Implements getter for the UserManager
+     * Implements getter for the UserManager, waiting for it to be read if it is not ready yet
      *
      * @return UserManager
      */
     public UserManager getUserManager(){
-        return userManager;
+        return userManager.start().join();
     }
 
     /**
-     * Implements getter for the EventManager
+     * Returns the future of the UserManager, which is completed once it is read and its journal is replayed. The
+     * UserManager starts being read if it has not been yet.
+     *
+     * @return Future of the UserManager
+     */
+    public CompletableFuture<UserManager> getUserManagerFuture(){
+        return userManager.start();
+    }
+
+    /**
+     * Implements getter for the EventManager, waiting for it to be read if it is not ready yet
      *
      * @return EventManager
      */
     public EventManager getEventManager(){
-        return eventManager;
+        return eventManager.start().join();
     }
 
     /**
-     * Implements getter for the MessageManager
+     * Returns the future of the EventManager, which is completed once it is read and its journal is replayed. The
+     * EventManager starts being read if it has not been yet.
+     *
+     * @return Future of the EventManager
+     */
+    public CompletableFuture<EventManager> getEventManagerFuture(){
+        return eventManager.start();
+    }
+
+    /**
+     * Implements getter for the MessageManager, waiting for it to be read if it is not ready yet
      *
      * @return MessageManager
      */
     public MessageManager getMessageManager(){
-        return messageManager;
+        return messageManager.start().join();
+    }
+
+    /**
+     * Returns the future of the MessageManager, which is completed once it is read and its journal is replayed. The
+     * MessageManager starts being read if it has not been yet.
+     *
+     * @return Future of the MessageManager
+     */
+    public CompletableFuture<MessageManager> getMessageManagerFuture(){
+        return messageManager.start();
     }
 
     /**
-     * Implements getter for the RoomManager
+     * Implements getter for the RoomManager, waiting for it to be read if it is not ready yet
      *
      * @return RoomManager
      */
     public RoomManager getRoomManager(){
-        return roomManager;
+        return roomManager.start().join();
     }
 
     /**
-     * Saves the use cases to the json files
+     * Returns the future of the RoomManager, which is completed once it is read and its journal is replayed. The
+     * RoomManager starts being read if it has not been yet.
+     *
+     * @return Future of the RoomManager
+     */
+    public CompletableFuture<RoomManager> getRoomManagerFuture(){
+        return roomManager.start();
+    }
+
+    /**
+     * Saves the use cases to the snapshots and the message store, and empties the journal since all of its changes are
+     * now in them. Only the use cases that were changed since they were last saved are written. A use case that has not
+     * been read yet is only read first if the journal has changes for it. This waits for the files to be written, and
+     * must not be called while a change is being made on the same thread.
      */
     public void save(){
         try {
-            userGateway.saveToFile(userInfo.getPath(), userManager);
-            eventGateway.saveToFile(eventInfo.getPath(), eventManager);
-            messageGateway.saveToFile(messageInfo.getPath(), messageManager);
-            roomGateway.saveToFile(roomInfo.getPath(), roomManager);
+            writer.submit(this::writeSnapshot).get();
+        } catch (ExecutionException e){
+            e.getCause().printStackTrace();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Saves the use cases like save, but returns right away while the snapshot is taken and written on the writer
+     * thread. Nothing is done if the previous save in the background has not finished yet. Can be called from any
+     * thread, including while a change is being made, as the journal does once it holds COMPACTION_THRESHOLD changes.
+     */
+    public void saveInBackground(){
+        if (!saving.compareAndSet(false, true)) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                writeSnapshot();
+            } finally {
+                saving.set(false);
+            }
+        });
+    }
+
+    // Helper method, takes a snapshot of the use cases and writes its files, on the writer thread
+    private void writeSnapshot() {
+        try {
+            SnapshotFiles files = takeSnapshot();
+            files.write();
+            files.written();
+        } catch (IOException e){
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Starts saving the use cases in the background every interval, and once the journal holds COMPACTION_THRESHOLD
+     * changes.
+     *
+     * @param interval Number of seconds between the saves
+     */
+    public void startAutosave(long interval){
+        if (autosave != null) {
+            autosave.shutdownNow();
+        }
+        autosave = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "managers-storage-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        autosave.scheduleWithFixedDelay(this::saveInBackground, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Helper method, takes a snapshot of the use cases that were changed since they were last saved, as a copy of
+    // their state, and rotates the journal so that the changes made from now on are kept apart from the ones in the
+    // snapshot. Changes to the use cases are held back meanwhile, each use case being blocked in the same order. The
+    // use cases are marked as saved, and the rotated journal files deleted, once the files of the snapshot are written.
+    private SnapshotFiles takeSnapshot() throws IOException {
+        while (true) {
+            UserManager um = mayHaveChanged(userManager, "user") ? getUserManager() : null;
+            EventManager em = mayHaveChanged(eventManager, "event") ? getEventManager() : null;
+            MessageManager mm = mayHaveChanged(messageManager, "message") ? getMessageManager() : null;
+            RoomManager rm = mayHaveChanged(roomManager, "room") ? getRoomManager() : null;
+            synchronized (loaders) {
+                // A use case that started being read in the meantime could be changed while the journal is rotated, so
+                // it is waited for first
+                if ((um != null || !userManager.isStarted()) && (em != null || !eventManager.isStarted())
+                        && (mm != null || !messageManager.isStarted()) && (rm != null || !roomManager.isStarted())) {
+                    return takeBlockedSnapshot(um, em, mm, rm);
+                }
+            }
+        }
+    }
+
+    // Helper method, blocks changes to the given use cases, which are null when they have nothing to save, and takes
+    // the snapshot of them
+    private SnapshotFiles takeBlockedSnapshot(UserManager um, EventManager em, MessageManager mm, RoomManager rm)
+            throws IOException {
+        // Checked before changes are held back, which is then only for as long as it takes to copy the use cases. The
+        // saved files are only written on this thread, so they are still there once the copy is taken.
+        boolean[] saved = {userSnapshot.exists(), eventSnapshot.exists(),
+                MessageGateway.isStore(messageStore.getPath()), roomSnapshot.exists()};
+        List<Runnable> blocked = new ArrayList<>();
+        try {
+            if (um != null) {
+                long[] stamps = um.blockChanges();
+                blocked.add(() -> um.allowChanges(stamps));
+            }
+            if (em != null) {
+                long[] stamps = em.blockChanges();
+                blocked.add(() -> em.allowChanges(stamps));
+            }
+            if (mm != null) {
+                long[] stamps = mm.blockChanges();
+                blocked.add(() -> mm.allowChanges(stamps));
+            }
+            if (rm != null) {
+                long[] stamps = rm.blockChanges();
+                blocked.add(() -> rm.allowChanges(stamps));
+            }
+            return takeSnapshot(um, em, mm, rm, saved);
+        } finally {
+            for (int i = blocked.size() - 1; i >= 0; i--) {
+                blocked.get(i).run();
+            }
+        }
+    }
+
+    // Helper method, takes the snapshot of the given use cases while changes to them are held back. Saved tells which
+    // of the user snapshot, event snapshot, message store and room snapshot exist.
+    private SnapshotFiles takeSnapshot(UserManager um, EventManager em, MessageManager mm, RoomManager rm,
+                                       boolean[] saved) throws IOException {
+        long snapshotGeneration = ++generation;
+        journalGateway.rotate(snapshotGeneration);
+        SnapshotFiles files = new SnapshotFiles();
+        if (um != null && (um.isModified() || !saved[0])) {
+            int version = um.getVersion();
+            userGateway.addSnapshot(files, userSnapshot.getPath(), um, snapshotGeneration);
+            files.whenWritten(() -> um.markSaved(version));
+        }
+        if (em != null && (em.isModified() || !saved[1])) {
+            int version = em.getVersion();
+            eventGateway.addSnapshot(files, eventSnapshot.getPath(), em, snapshotGeneration);
+            files.whenWritten(() -> em.markSaved(version));
+        }
+        if (mm != null && (mm.isModified() || !saved[2])) {
+            int version = mm.getVersion();
+            messageGateway.addStore(files, messageStore.getPath(), mm, snapshotGeneration);
+            files.whenWritten(() -> mm.markSaved(version));
+        }
+        if (rm != null && (rm.isModified() || !saved[3])) {
+            int version = rm.getVersion();
+            roomGateway.addSnapshot(files, roomSnapshot.getPath(), rm, snapshotGeneration);
+            files.whenWritten(() -> rm.markSaved(version));
+        }
+        files.whenWritten(() -> {
+            try {
+                journalGateway.deleteRotated(snapshotGeneration);
+            } catch (IOException e){
+                e.printStackTrace();
+            }
+        });
+        return files;
+    }
+
+    // Helper method, returns whether a manager may have changes to save, which is when it has started being read or
+    // when the journal has changes for it that are yet to be replayed
+    private boolean mayHaveChanged(ManagerLoader<?> loader, String manager) {
+        return loader.isStarted() || journalGateway.hasChanges(manager);
+    }
+
+    /**
+     * Writes the use cases to the json files, so that they can be read or edited outside of the program. The snapshots
+     * are still read instead of the json files when the program starts.
+     */
+    public void exportToJSON(){
+        try {
+            userGateway.saveToFile(userInfo.getPath(), getUserManager());
+            eventGateway.saveToFile(eventInfo.getPath(), getEventManager());
+            // Announcements are changed in place when a thread is deleted, so the MessageManager is read with its
+            // changes held back
+            MessageManager mm = getMessageManager();
+            long[] stamps = mm.blockChanges();
+            try {
+                messageGateway.saveToFile(messageInfo.getPath(), mm);
+            } finally {
+                mm.allowChanges(stamps);
+            }
+            roomGateway.saveToFile(roomInfo.getPath(), getRoomManager());
+        } catch (IOException e){
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops the autosave, waits for a save in the background to finish writing its files, and closes the journal.
+     * Every change is already in the journal, so nothing else needs to be saved.
+     */
+    public void close(){
+        try {
+            if (autosave != null) {
+                autosave.shutdownNow();
+            }
+            writer.shutdown();
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+            journalGateway.close();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
         } catch (IOException e){
             e.printStackTrace();
         }
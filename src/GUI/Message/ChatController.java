@@ -1,10 +1,9 @@
 package GUI.Message;
 
+import GUI.DataHolders.AsyncManagers;
 import GUI.DataHolders.CollocutorHolder;
 import GUI.WelcomeController;
-import GUI.DataHolders.ManagersStorage;
 import GUI.DataHolders.UserHolder;
-import UseCases.MessageManager;
 import UseCases.UserManager;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -15,53 +14,135 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The subscene for message chats
  */
 public class ChatController {
-    private MessageManager messageManager;
-    private UserManager userManager;
+    private static final int PAGE_SIZE = 30;
+
     private String username;
     private String collocutor;
     private int index;
+    private int cursor;
+    private boolean loading;
+    // Completed once the latest page and the messages sent so far are displayed, so that each sent message is
+    // displayed after them
+    private CompletableFuture<Void> sending;
 
     @FXML private ScrollPane scrollPane;
     @FXML private TextField textField;
     @FXML private VBox chatBox;
 
     /**
-     * Initializes the chat scene.
+     * Initializes the chat scene. Only the latest messages are displayed, and older ones are loaded whenever the user
+     * scrolls to the top. The messages and the names of their senders are read on a worker thread, since the managers
+     * may still be being read.
      */
     public void initialize(){
-        this.messageManager = ManagersStorage.getInstance().getMessageManager();
-        this.userManager = ManagersStorage.getInstance().getUserManager();
         this.username = UserHolder.getInstance().getUsername();
         this.collocutor = CollocutorHolder.getInstance().getUsername();
-        if(messageManager.getInboxes(username).isEmpty()) return;
-        List<List<String>> messages = messageManager.getInboxStringGUI(username, collocutor);
-        for(List<String> messageInfo: messages) {
-            displayMessage(messageInfo);
-        }
+        String user = username;
+        String other = collocutor;
+        loading = true;
+        sending = AsyncManagers.onFxThread(AsyncManagers.getInstance().withUserAndMessageManagers(
+                (userManager, messageManager) -> {
+                    Page page = new Page(messageManager.getInboxSize(user, other));
+                    page.messages = addNames(userManager,
+                            messageManager.getMessagesBeforeGUI(user, other, page.cursor, PAGE_SIZE));
+                    messageManager.markRead(user, other);
+                    return page;
+                }), page -> {
+            cursor = page.cursor - page.messages.size();
+            for(List<String> messageInfo: page.messages) {
+                displayMessage(messageInfo);
+            }
+            scrollPane.setVvalue(scrollPane.getVmax());
+            loading = false;
+        });
+        scrollPane.vvalueProperty().addListener((obj, oldVal, newVal) -> {
+            if (cursor > 0 && !loading && newVal.doubleValue() <= scrollPane.getVmin()) {
+                displayOlderMessages();
+            }
+        });
     }
 
     /**
-     * Handles action when the send button is clicked. Sends the message.
+     * Handles action when the send button is clicked. Sends the message on a worker thread, and displays it once it
+     * is sent. Messages are sent one after another, in the order they were entered, and only once the latest page is
+     * displayed, which would otherwise already hold them.
      */
     @FXML private void handleSend(ActionEvent event){
         String content = textField.getText();
         if(!content.isEmpty()){
-            messageManager.sendMessage(username, collocutor, content);
-            int size = messageManager.getInboxStringGUI(username, collocutor).size();
-            List<String> messageInfo = messageManager.getInboxStringGUI(username, collocutor).get(size - 1);
-            displayMessage(messageInfo);
+            String user = username;
+            String other = collocutor;
             textField.clear();
+            sending = sending.thenCompose(sent -> AsyncManagers.onFxThread(
+                    AsyncManagers.getInstance().withUserAndMessageManagers((userManager, messageManager) -> {
+                        List<String> messageInfo = messageManager.sendMessageGUI(user, other, content);
+                        messageInfo.add(userManager.getName(user));
+                        return messageInfo;
+                    }), this::displayMessage));
+        }
+    }
+
+    /**
+     * Reads the page of messages before the oldest displayed one on a worker thread, and displays it above it, keeping
+     * the displayed messages where they were on the screen.
+     */
+    private void displayOlderMessages(){
+        String user = username;
+        String other = collocutor;
+        int before = cursor;
+        loading = true;
+        AsyncManagers.onFxThread(AsyncManagers.getInstance().withUserAndMessageManagers(
+                (userManager, messageManager) -> addNames(userManager,
+                        messageManager.getMessagesBeforeGUI(user, other, before, PAGE_SIZE))), messages -> {
+            cursor = before - messages.size();
+            List<VBox> messageBoxes = new ArrayList<>();
+            for(List<String> messageInfo: messages) {
+                messageBoxes.add(createMessageBox(messageInfo));
+            }
+
+            double oldHeight = chatBox.getHeight();
+            chatBox.getChildren().addAll(0, messageBoxes);
+            scrollPane.applyCss();
+            scrollPane.layout();
+            double addedHeight = chatBox.getHeight() - oldHeight;
+            double scrollableHeight = chatBox.getHeight() - scrollPane.getViewportBounds().getHeight();
+            if (scrollableHeight > 0) {
+                scrollPane.setVvalue(Math.min(addedHeight / scrollableHeight, 1) * scrollPane.getVmax());
+            }
+            loading = false;
+        });
+    }
+
+    /**
+     * Adds the name of the sender to the end of the information of each message, for createMessageBox. Called on a
+     * worker thread.
+     *
+     * @param userManager UserManager holding the senders
+     * @param messages information of the messages, as returned by the MessageManager
+     * @return the same information, with the names added
+     */
+    private static List<List<String>> addNames(UserManager userManager, List<List<String>> messages){
+        for(List<String> messageInfo: messages) {
+            messageInfo.add(userManager.getName(messageInfo.get(0)));
         }
+        return messages;
     }
 
     private void displayMessage(List<String> messageInfo){
-        String name = userManager.getName(messageInfo.get(0));
+        chatBox.getChildren().add(createMessageBox(messageInfo));
+        chatBox.setSpacing(10);
+    }
+
+    private VBox createMessageBox(List<String> messageInfo){
+        String name = messageInfo.get(3);
         Label label = new Label( name + "     " + messageInfo.get(1));
         label.setStyle("-fx-font-size: 14px;-fx-font-weight: bold; -fx-text-fill: #ffffff;");
         HBox hBox1 = new HBox();
@@ -93,8 +174,17 @@ public class ChatController {
         vBox.setSpacing(5);
         vBox.getChildren().add(hBox1);
         vBox.getChildren().add(hBox2);
-        chatBox.getChildren().add(vBox);
-        chatBox.setSpacing(10);
         index++;
+        return vBox;
+    }
+
+    // The latest page of a chat, along with the size of the chat it was read from
+    private static final class Page {
+        private final int cursor;
+        private List<List<String>> messages;
+
+        private Page(int cursor) {
+            this.cursor = cursor;
+        }
     }
 }
@@ -5,6 +5,7 @@ import GUI.WelcomeController;
 import GUI.DataHolders.ManagersStorage;
 import GUI.DataHolders.UserHolder;
 import UseCases.MessageManager;
+import UseCases.UserManager;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -61,13 +62,13 @@ public class MessageController {
     protected void handleNewChatButtonAction() {
         deleteEmptyChatButtons();
         String user = searchField.getText();
-        List<String> allUsers = ManagersStorage.getInstance().getUserManager().getUsernameList();
+        UserManager userManager = ManagersStorage.getInstance().getUserManager();
         List<String> contacts = ManagersStorage.getInstance().getMessageManager().getInboxes(username);
         if(contacts.contains(user)){
             CollocutorHolder.getInstance().setUsername(user);
             loadSubScene("/GUI/Message/Chat");
 
-        }else if(allUsers.contains(user)){
+        }else if(userManager.isRegistered(user)){
             if (!buttonExists(user)){
                 makeButton(user);
             }
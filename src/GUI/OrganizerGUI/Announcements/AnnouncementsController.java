@@ -1,14 +1,16 @@
 package GUI.OrganizerGUI.Announcements;
 
 import Entities.UserType;
-import GUI.DataHolders.ManagersStorage;
+import GUI.DataHolders.AsyncManagers;
 import GUI.DataHolders.UserHolder;
-import UseCases.MessageManager;
-import UseCases.UserManager;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextArea;
 
 import java.util.ArrayList;
@@ -23,38 +25,70 @@ public class AnnouncementsController {
     @FXML private CheckBox organizerCheckBox;
     @FXML private CheckBox speakerCheckBox;
     @FXML private CheckBox attendeeCheckBox;
+    @FXML private Button sendButton;
+    @FXML private ProgressBar progressBar;
+    @FXML private Label progressLabel;
 
 
     /**
-     * Handles action when the send button is clicked. Sends the announcement.
+     * Handles action when the send button is clicked. Sends the announcement on a worker thread, showing how many
+     * receivers it has reached, and keeps the send button disabled until it is sent.
      */
     @FXML
     protected void handleSendButtonAction(ActionEvent event){
-        UserManager userManager = ManagersStorage.getInstance().getUserManager();
-        MessageManager messageManager = ManagersStorage.getInstance().getMessageManager();
         String user = UserHolder.getInstance().getUsername();
         String content = textArea.getText();
 
-        List<String> userList = new ArrayList<>();
-
+        List<UserType> userTypes = new ArrayList<>();
         if(adminCheckBox.isSelected()){
-            userList.addAll(userManager.getUserList(UserType.ADMIN));
+            userTypes.add(UserType.ADMIN);
         }
         if(organizerCheckBox.isSelected()){
-            userList.addAll(userManager.getUserList(UserType.ORGANIZER));
+            userTypes.add(UserType.ORGANIZER);
         }
         if(speakerCheckBox.isSelected()){
-            userList.addAll(userManager.getUserList(UserType.SPEAKER));
+            userTypes.add(UserType.SPEAKER);
         }
         if(attendeeCheckBox.isSelected()){
-            userList.addAll(userManager.getUserList(UserType.ATTENDEE));
+            userTypes.add(UserType.ATTENDEE);
         }
 
-        messageManager.messageAll(user, userList, content);
-        textArea.clear();
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setHeaderText(null);
-        alert.setContentText("Announcement Sent!");
-        alert.showAndWait();
+        sendButton.setDisable(true);
+        showProgress(0, 0);
+        AsyncManagers managers = AsyncManagers.getInstance();
+        AsyncManagers.onFxThread(managers.withUserManager(userManager -> {
+            List<String> userList = new ArrayList<>();
+            for (UserType userType : userTypes) {
+                userList.addAll(userManager.getUserList(userType));
+            }
+            return userList;
+        }).thenCompose(userList -> managers.withMessageManager(messageManager -> {
+            messageManager.messageAll(user, userList, content,
+                    reached -> Platform.runLater(() -> showProgress(reached, userList.size())));
+            return userList.size();
+        })).whenCompleteAsync((sent, e) -> {
+            sendButton.setDisable(false);
+            progressBar.setVisible(false);
+            progressLabel.setVisible(false);
+        }, AsyncManagers.fxThread()), sent -> {
+            textArea.clear();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setHeaderText(null);
+            alert.setContentText("Announcement Sent!");
+            alert.showAndWait();
+        });
+    }
+
+    /**
+     * Shows how many receivers the announcement has reached.
+     *
+     * @param reached number of receivers reached so far
+     * @param total number of receivers
+     */
+    private void showProgress(int reached, int total){
+        progressBar.setVisible(true);
+        progressLabel.setVisible(true);
+        progressBar.setProgress(total == 0 ? ProgressBar.INDETERMINATE_PROGRESS : (double) reached / total);
+        progressLabel.setText(total == 0 ? "Sending..." : reached + " / " + total);
     }
 }
@@ -5,6 +5,8 @@ import GUI.DataHolders.ManagersStorage;
 import GUI.DataHolders.UserHolder;
 import UseCases.EventManager;
 import UseCases.RoomManager;
+import UseCases.SchedulingManager;
+import UseCases.SchedulingResult;
 import UseCases.UserManager;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -80,24 +82,25 @@ public class CreateEventController {
 
         if(!startTime.isBefore(endTime)){
             createErrorAlert("Start time is equal or after end time");
+            return;
         }else if(startTime.isBefore(LocalDateTime.now())){
             createErrorAlert("Cannot create event that starts before current time.");
-        }else if(!roomManager.roomExists(roomName)){
+            return;
+        }
+        SchedulingManager schedulingManager = new SchedulingManager(eventManager, userManager, roomManager);
+        SchedulingResult result = schedulingManager.createEvent(eventName, username, startTime, endTime, roomName,
+                eventCapacity, speakers);
+
+        if(result == SchedulingResult.NO_ROOM){
             createErrorAlert("This room does not exist");
-        }else if(roomManager.cannotAddEvent(roomName, startTime, endTime)){
-            createErrorAlert("This room is hosting an event during this time period.");
-        }else if(roomManager.hasInsufficientSpace(roomName, speakers.size() + eventCapacity)){
+        }else if(result == SchedulingResult.ROOM_TAKEN){
+            List<UUID> conflicts = roomManager.getConflictingEvents(roomName, startTime, endTime);
+            String conflictName = conflicts.isEmpty() || !eventManager.eventExists(conflicts.get(0)) ? "another event"
+                    : eventManager.getEventName(conflicts.get(0));
+            createErrorAlert("This room is hosting " + conflictName + " during this time period.");
+        }else if(result == SchedulingResult.ROOM_TOO_SMALL){
             createErrorAlert("This event capacity exceeds the room capacity. Please choose another room");
         }else{
-            UUID eventID = eventManager.addEvent(eventName, username, startTime, endTime, roomName, eventCapacity);
-            eventManager.addSpeakers(eventID, speakers);
-            if(!speakers.isEmpty()) {
-                for (String speaker : speakers) {
-                    userManager.addEventAttending(speaker, eventID);
-                }
-            }
-            roomManager.addEventToSchedule(eventID, roomName, startTime, endTime);
-
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setHeaderText(null);
             alert.setContentText("Event created!");
@@ -4,6 +4,9 @@ import GUI.DataHolders.EventHolder;
 import GUI.DataHolders.ManagersStorage;
 import UseCases.EventManager;
 import UseCases.RoomManager;
+import UseCases.SchedulingManager;
+import UseCases.SchedulingResult;
+import UseCases.UserManager;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -11,7 +14,6 @@ import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.TextField;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Observable;
 import java.util.UUID;
@@ -31,6 +33,7 @@ public class EditEventController extends Observable {
 
     private EventManager eventManager;
     private RoomManager roomManager;
+    private UserManager userManager;
     private UUID eventID;
 
     /**
@@ -39,6 +42,7 @@ public class EditEventController extends Observable {
     public void initialize() {
         this.eventManager = ManagersStorage.getInstance().getEventManager();
         this.roomManager = ManagersStorage.getInstance().getRoomManager();
+        this.userManager = ManagersStorage.getInstance().getUserManager();
         this.eventID = EventHolder.getInstance().getEventID();
         List<String> eventInfo = eventManager.getEventsInfo(eventID);
         label1.setText("Event Name: " + eventInfo.get(1));
@@ -96,24 +100,29 @@ public class EditEventController extends Observable {
      */
     private void changeRoom(){
         String roomName = textField.getText();
+        SchedulingManager schedulingManager = new SchedulingManager(eventManager, userManager, roomManager);
+        SchedulingResult result = schedulingManager.changeRoom(eventID, roomName);
 
-        if (!roomManager.roomExists(roomName)){
+        if (result == SchedulingResult.NO_EVENT){
+            createAlertMessage("This event no longer exists.");
+            return;
+        }
+        if (result == SchedulingResult.NO_ROOM){
             createAlertMessage("This room does not exist.");
             return;
         }
-        if(!roomAllowsEvent(eventID)){
+        if(result == SchedulingResult.ROOM_TOO_SMALL){
             createAlertMessage("The capacity of this event exceeds the new room's capacity, thus cannot change room.");
             return;
         }
-        LocalDateTime start = eventManager.getEventStartTime(eventID);
-        LocalDateTime end = eventManager.getEventEndTime(eventID);
-        if(roomManager.cannotAddEvent(roomName, start, end)){
-            createAlertMessage("This room is not available at this time.");
+        if(result == SchedulingResult.ROOM_TAKEN){
+            List<UUID> conflicts = roomManager.getConflictingEvents(roomName,
+                    eventManager.getEventStartTime(eventID), eventManager.getEventEndTime(eventID));
+            String conflictName = conflicts.isEmpty() || !eventManager.eventExists(conflicts.get(0)) ? "another event"
+                    : eventManager.getEventName(conflicts.get(0));
+            createAlertMessage("This room is not available at this time, as it is hosting " + conflictName + ".");
             return;
         }
-        eventManager.setEventRoomName(eventID, roomName);
-        roomManager.removeEventFromRoom(eventID, roomName);
-        roomManager.addEventToSchedule(eventID, roomName, start, end);
         createAlertMessage("Room Changed!");
         setChanged();
         notifyObservers("EditEvent");
@@ -144,15 +153,4 @@ public class EditEventController extends Observable {
         text.setText("New Room:  ");
         textField.setVisible(true);
     }
-
-    /**
-     * Check whether the room is valid for the event.
-     * @param eventID The event that is switching rooms
-     */
-    private boolean roomAllowsEvent(UUID eventID){
-        int roomCapacity = roomManager.getRoomCapacity(eventManager.getEventRoomName(eventID));
-        int eventCapacity = eventManager.getEventMaxCapacity(eventID);
-        int speakerSize = eventManager.getEventSpeaker(eventID).size();
-        return roomCapacity > (eventCapacity + speakerSize);
-    }
 }
@@ -2,6 +2,8 @@ package GUI.OrganizerGUI.ModifyEvent;
 
 import GUI.DataHolders.EventHolder;
 import GUI.SceneParents.EventInfoController;
+import UseCases.SchedulingManager;
+import UseCases.SchedulingResult;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Alert;
 
@@ -29,23 +31,23 @@ public class EventInfoModifyController extends EventInfoController {
     }
 
     /**
-     * Handles action of when the remove event button is clicked. Cancels an event.
+     * Handles action of when the remove event button is clicked. Cancels an event, unless it was already cancelled, in
+     * which case an error is shown. Either way the list of events is reloaded.
      */
     public void handleRemoveEventButton(ActionEvent actionEvent) {
         UUID eventID = EventHolder.getInstance().getEventID();
-        for (String username: getEventManager().getEventAttendees(eventID)){
-            getUserManager().removeEventAttending(username, eventID);
+        SchedulingManager schedulingManager = new SchedulingManager(getEventManager(), getUserManager(),
+                getRoomManager());
+        SchedulingResult result = schedulingManager.cancelEvent(eventID);
+        Alert alert;
+        if (result == SchedulingResult.DONE) {
+            alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setContentText("Event Successfully Removed.");
+        } else {
+            alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText("This event no longer exists.");
         }
-        if(!getSpeakersList().isEmpty()){
-            for(String speaker: getSpeakersList().split(",")){
-                getUserManager().removeEventAttending(speaker,eventID);
-            }
-        }
-        getEventManager().removeEvent(eventID);
-        getRoomManager().removeEventFromRoom(eventID, getRoom());
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setHeaderText(null);
-        alert.setContentText("Event Successfully Removed.");
         alert.showAndWait();
         setChanged();
         notifyObservers("ModifyEvent");
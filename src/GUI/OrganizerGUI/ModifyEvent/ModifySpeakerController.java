@@ -10,7 +10,6 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Observable;
@@ -72,16 +71,20 @@ public class ModifySpeakerController extends Observable {
      */
     private void addSpeakerInputChecksSuccess(){
         String speakerUsername = speakerNameField.getText();
+        List<UUID> conflicts = eventManager.getScheduleConflicts(speakerUsername, eventID);
         if (speakerUsername.isEmpty()){
             createAlertMessage("Missing speaker name input");
         }else if (!userManager.isRegistered(speakerUsername)){
             createAlertMessage("This username does not exist.");
         }else if (!userManager.getUserType(speakerUsername).equals(UserType.SPEAKER)){
             createAlertMessage("This user is not a speaker.");
+        }else if (eventManager.getEventSpeaker(eventID).contains(speakerUsername)){
+            createAlertMessage("This speaker is already speaking at this event.");
         }else if (!roomAllowsSpeaker(eventID)){
             createAlertMessage("The room capacity is full and cannot add a speaker to the event");
-        }else if(!speakerAvailable(speakerUsername, eventManager.getEventStartTime(eventID), eventManager.getEventEndTime(eventID))){
-            createAlertMessage("This speaker is not available at the time of this event.");
+        }else if(!conflicts.isEmpty()){
+            createAlertMessage("This speaker is not available at the time of this event, as they are scheduled for " +
+                    eventManager.getEventName(conflicts.get(0)) + ".");
         }else {
             List<String> speaker = new ArrayList<>();
             speaker.add(speakerUsername);
@@ -122,24 +125,8 @@ public class ModifySpeakerController extends Observable {
      */
     private boolean roomAllowsSpeaker(UUID eventID){
         int roomCapacity = roomManager.getRoomCapacity(eventManager.getEventRoomName(eventID));
-        int attendeeSize = eventManager.getEventAttendees(eventID).size();
+        int attendeeSize = eventManager.getNumAttendees(eventID);
         int speakerSize = eventManager.getEventSpeaker(eventID).size();
         return roomCapacity > (attendeeSize + speakerSize);
     }
-
-    /**
-     * Checks whether speaker is available to be added to an event
-     */
-    private boolean speakerAvailable(String speaker, LocalDateTime newST, LocalDateTime newET){
-        List<UUID> speakers_events = userManager.getEventsAttending(speaker);
-        for (UUID id: speakers_events){
-            LocalDateTime existingST = eventManager.getEventStartTime(id);
-            LocalDateTime existingET = eventManager.getEventEndTime(id);
-            if (eventManager.scheduleOverlap(existingST, existingET, newST, newET)){
-                return false;
-            }
-        }
-        return true;
-    }
 }
-
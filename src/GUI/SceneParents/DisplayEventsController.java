@@ -1,11 +1,10 @@
 package GUI.SceneParents;
 
+import GUI.DataHolders.AsyncManagers;
 import GUI.DataHolders.EventHolder;
-import GUI.DataHolders.ManagersStorage;
 import GUI.DataHolders.UserHolder;
 import GUI.WelcomeController;
 import UseCases.EventManager;
-import UseCases.UserManager;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -20,16 +19,17 @@ import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * This class is an abstract class for displaying events
  */
 public abstract class DisplayEventsController extends Observable implements Observer {
-    private EventManager eventManager;
-    private UserManager userManager;
     private String username;
     private SubScene subScene;
     private List<List<String>> eventsInfo;
+    private int column;
+    private int row;
 
     @FXML private GridPane gridPane;
     @FXML private GridPane subGridPane;
@@ -39,11 +39,37 @@ public abstract class DisplayEventsController extends Observable implements Obse
      * Initializes the display events scene.
      */
     public void initialize(){
-        this.eventManager = ManagersStorage.getInstance().getEventManager();
-        this.userManager = ManagersStorage.getInstance().getUserManager();
         this.username = UserHolder.getInstance().getUsername();
-        List<UUID> myEventIDs = userManager.getEventsAttending(username);
-        this.eventsInfo = eventManager.getAllEventsInfo(myEventIDs);
+    }
+
+    /**
+     * Displays the events that the user attends or speaks at. They are read on a worker thread, and the event buttons
+     * are generated once they are read.
+     *
+     * @param path scene path
+     */
+    public void displayMyEvents(String path){
+        String user = username;
+        AsyncManagers.onFxThread(AsyncManagers.getInstance().withUserAndEventManagers(
+                (userManager, eventManager) -> eventManager.getAllEventsInfo(userManager.getEventsAttending(user))),
+                eventsInfo -> {
+                    this.eventsInfo = eventsInfo;
+                    generateEventButtons(path, eventsInfo);
+                });
+    }
+
+    /**
+     * Displays the events that a query of the EventManager returns. The query is run on a worker thread, and the event
+     * buttons are generated once it returns.
+     *
+     * @param path scene path
+     * @param query query returning the information of the events to display
+     */
+    public void displayEvents(String path, Function<EventManager, List<List<String>>> query){
+        AsyncManagers.onFxThread(AsyncManagers.getInstance().withEventManager(query), eventsInfo -> {
+            this.eventsInfo = eventsInfo;
+            generateEventButtons(path, eventsInfo);
+        });
     }
 
     /**
@@ -53,7 +79,21 @@ public abstract class DisplayEventsController extends Observable implements Obse
      * @param eventsInfo information of events user wants to display
      */
     public void generateEventButtons(String path, List<List<String>> eventsInfo){
-        int i = 0, j = 0;
+        column = 0;
+        row = 0;
+        appendEventButtons(path, eventsInfo);
+        loadSubScene("/GUI/Empty");
+
+        gridPane.add(subScene, 0, 1);
+    }
+
+    /**
+     * Adds event buttons after the ones already generated, when given the information of more events
+     *
+     * @param path scene path
+     * @param eventsInfo information of the additional events user wants to display
+     */
+    public void appendEventButtons(String path, List<List<String>> eventsInfo){
         for(List<String> eventInfo: eventsInfo) {
             Button button = new Button(eventInfo.get(1) + "\nStarts: " + eventInfo.get(2) + "\nEnds:  " + eventInfo.get(3));
             button.setPrefHeight(75);
@@ -72,12 +112,9 @@ public abstract class DisplayEventsController extends Observable implements Obse
                     }
                 }
             });
-            subGridPane.add(button, i, j);
-            if(i < 3){ i++; }else{ i = 0; j++;}
+            subGridPane.add(button, column, row);
+            if(column < 3){ column++; }else{ column = 0; row++;}
         }
-        loadSubScene("/GUI/Empty");
-
-        gridPane.add(subScene, 0, 1);
     }
 
     /**
@@ -124,7 +161,7 @@ public abstract class DisplayEventsController extends Observable implements Obse
     /**
      * Implements a getter, for the information of all events
      *
-     * @return events information
+     * @return events information, or null if they are not read yet
      */
     public List<List<String>> getEventsInfo() {
         return eventsInfo;
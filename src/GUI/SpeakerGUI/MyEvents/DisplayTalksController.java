@@ -25,6 +25,6 @@ public class DisplayTalksController extends DisplayEventsController {
      */
     public void initialize(){
         super.initialize();
-        generateEventButtons("EventInfoMessage", getEventsInfo());
+        displayMyEvents("EventInfoMessage");
     }
 }
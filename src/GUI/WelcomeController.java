@@ -21,7 +21,6 @@ import java.io.IOException;
  */
 public class WelcomeController{
     private UserManager userManager;
-    private MessageManager messageManager;
     private String username;
 
     @FXML private Text prompt;
@@ -33,7 +32,6 @@ public class WelcomeController{
      */
     public void initialize(){
         this.userManager = ManagersStorage.getInstance().getUserManager();
-        this.messageManager = ManagersStorage.getInstance().getMessageManager();
         this.username = null;
     }
 
@@ -47,11 +45,11 @@ public class WelcomeController{
     }
 
     /**
-     * Implements getter for the MessageManager
+     * Implements getter for the MessageManager, which is only read once it is first needed
      *
      * @return MessageManager
      */
-    public MessageManager getMessageManager() { return messageManager; }
+    public MessageManager getMessageManager() { return ManagersStorage.getInstance().getMessageManager(); }
 
     /**
      * Implements getter for the user's username
@@ -10,9 +10,11 @@ import java.io.IOException;
  * Main GUI Application
  */
 public class GUIApplication extends javafx.application.Application {
+    // Number of seconds between autosaves, unless set with -Dautosave.interval=<seconds>
+    private static final long DEFAULT_AUTOSAVE_INTERVAL = 60;
 
     /**
-     * Loads the Welcome scene
+     * Loads the Welcome scene, and starts saving the managers in the background every autosave interval
      */
     @Override
     public void start(Stage primaryStage) throws IOException {
@@ -27,6 +29,9 @@ public class GUIApplication extends javafx.application.Application {
         primaryStage.setResizable(false);
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        long autosaveInterval = Long.getLong("autosave.interval", DEFAULT_AUTOSAVE_INTERVAL);
+        ManagersStorage.getInstance().startAutosave(autosaveInterval);
     }
 
     /**
@@ -35,7 +40,7 @@ public class GUIApplication extends javafx.application.Application {
     @Override
     public void stop() throws Exception {
         super.stop();
-        ManagersStorage.getInstance().save();
+        ManagersStorage.getInstance().close();
     }
 
     /**
@@ -5,11 +5,7 @@ import UseCases.EventManager;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -17,46 +13,88 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * Reading and writing to JSON files for the EventManager
+ * Reading and writing to JSON files and binary snapshots for the EventManager
  */
 public class EventGateway {
+    private static final byte SNAPSHOT_KIND = 'E';
 
-    /** Returns a EventManager object after reading from the event manager JSON file
+    /** Returns a EventManager object after reading from the event manager JSON file, or from a binary snapshot if
+     * the file starts with the snapshot header
      *
-     * @param filepath The filepath of the event manager JSON file
-     * @return EventManager created from the data in the JSON file
+     * @param filepath The filepath of the event manager JSON file or snapshot
+     * @return EventManager created from the data in the file
      * @throws IOException Throws exception if problems reading from file
      */
     public EventManager readFromFile(String filepath) throws IOException {
-        String content = new String(Files.readAllBytes(Paths.get(filepath)));
-        JSONObject jo = new JSONObject(content);
+        if (SnapshotReader.isSnapshot(filepath))
+            return readSnapshot(filepath);
 
         EventManager em = new EventManager();
 
-        if (jo.isEmpty())
-            return em;
+        try (JSONStreamReader reader = new JSONStreamReader(filepath)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String eventId = reader.nextName();
+                JSONObject info = (JSONObject) reader.nextValue();
+                readEvent(em, eventId, info);
+            }
+            reader.endObject();
+        }
+
+        return em;
+    }
 
-        for (String eventId : JSONObject.getNames(jo)) {
-            JSONObject info = (JSONObject) jo.get(eventId);
-            LocalDateTime startTime = LocalDateTime.parse((CharSequence) info.get("startTime"));
-            LocalDateTime endTime = LocalDateTime.parse((CharSequence) info.get("endTime"));
-            UUID id = UUID.fromString(eventId);
+    // Helper method, adds the event with the information read from the file
+    private void readEvent(EventManager em, String eventId, JSONObject info) {
+        LocalDateTime startTime = LocalDateTime.parse((CharSequence) info.get("startTime"));
+        LocalDateTime endTime = LocalDateTime.parse((CharSequence) info.get("endTime"));
+        UUID id = UUID.fromString(eventId);
 
-            em.addEvent((String) info.get("eventName"), (String) info.get("organizer"),
-                    startTime, endTime, (String) info.get("roomName"), (Integer) info.get("maxCapacity"), id);
+        em.addEvent((String) info.get("eventName"), (String) info.get("organizer"),
+                startTime, endTime, (String) info.get("roomName"), (Integer) info.get("maxCapacity"), id);
 
-            JSONArray attendees = (JSONArray) info.get("attendees");
+        JSONArray attendees = (JSONArray) info.get("attendees");
 
-            for (Object attendee: attendees) {
-                em.addAttendee(id, (String) attendee);
-            }
+        for (Object attendee: attendees) {
+            em.addAttendee(id, (String) attendee);
+        }
 
-            JSONArray speakers = (JSONArray) info.get("speakers");
-            List<String> speakerList = new ArrayList<>();
-            for (Object speaker : speakers) {
-                speakerList.add(speaker.toString());
+        JSONArray speakers = (JSONArray) info.get("speakers");
+        List<String> speakerList = new ArrayList<>();
+        for (Object speaker : speakers) {
+            speakerList.add(speaker.toString());
+        }
+        em.addSpeakers(id, speakerList);
+    }
+
+    // Helper method, reads an EventManager from a binary snapshot
+    private EventManager readSnapshot(String filepath) throws IOException {
+        SnapshotReader reader = new SnapshotReader(filepath, SNAPSHOT_KIND);
+        EventManager em = new EventManager();
+
+        int numEvents = reader.beginSection();
+        for (int i = 0; i < numEvents; i++) {
+            reader.beginRecord();
+            UUID id = reader.readUUID();
+            String eventName = reader.readString();
+            String organizer = reader.readUsername();
+            LocalDateTime startTime = reader.readTime();
+            LocalDateTime endTime = reader.readTime();
+            String roomName = reader.readString();
+            int maxCapacity = reader.readInt();
+            em.addEvent(eventName, organizer, startTime, endTime, roomName, maxCapacity, id);
+
+            int numAttendees = reader.readInt();
+            for (int j = 0; j < numAttendees; j++) {
+                em.addAttendee(id, reader.readUsername());
+            }
+            int numSpeakers = reader.readInt();
+            List<String> speakerList = new ArrayList<>(numSpeakers);
+            for (int j = 0; j < numSpeakers; j++) {
+                speakerList.add(reader.readUsername());
             }
             em.addSpeakers(id, speakerList);
+            reader.endRecord();
         }
 
         return em;
@@ -66,29 +104,107 @@ public class EventGateway {
      *
      * @param filePath The filepath where we want to save the JSON file
      * @param eventManager The EventManager that we want to save
-     * @throws FileNotFoundException Error when creating or opening the JSON file at the filepath
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
      */
-    public void saveToFile(String filePath, EventManager eventManager) throws FileNotFoundException {
-        JSONObject jo = new JSONObject();
-        for (UUID id : eventManager.getEvents()) {
-            LinkedHashMap<String, Object> map = new LinkedHashMap<>(7);
-
-            map.put("eventName", eventManager.getEventName(id));
-            map.put("speakers", eventManager.getEventSpeaker(id));
-            map.put("organizer", eventManager.getEventOrganizer(id));
-            map.put("attendees", eventManager.getEventAttendees(id));
-            map.put("startTime", eventManager.getEventStartTime(id));
-            map.put("endTime", eventManager.getEventEndTime(id));
-            map.put("roomName", eventManager.getEventRoomName(id));
-            map.put("maxCapacity", eventManager.getEventMaxCapacity(id));
-
-            jo.put(id.toString(), map);
+    public void saveToFile(String filePath, EventManager eventManager) throws IOException {
+        saveToFile(filePath, eventManager, false);
+    }
+
+    /** Saves a the data in the EventManager in a JSON file, writing one event at a time
+     *
+     * @param filePath The filepath where we want to save the JSON file
+     * @param eventManager The EventManager that we want to save
+     * @param compact Whether to leave out the indentation and line breaks, which makes the file smaller
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
+     */
+    public void saveToFile(String filePath, EventManager eventManager, boolean compact) throws IOException {
+        try (JSONStreamWriter writer = new JSONStreamWriter(filePath, compact)) {
+            writer.beginObject();
+            for (UUID id : eventManager.getEvents()) {
+                LinkedHashMap<String, Object> map = new LinkedHashMap<>(7);
+
+                map.put("eventName", eventManager.getEventName(id));
+                map.put("speakers", eventManager.getEventSpeaker(id));
+                map.put("organizer", eventManager.getEventOrganizer(id));
+                map.put("attendees", eventManager.getEventAttendees(id));
+                map.put("startTime", eventManager.getEventStartTime(id));
+                map.put("endTime", eventManager.getEventEndTime(id));
+                map.put("roomName", eventManager.getEventRoomName(id));
+                map.put("maxCapacity", eventManager.getEventMaxCapacity(id));
+
+                writer.name(id.toString());
+                writer.value(map);
+            }
+            writer.endObject();
         }
+    }
 
-        PrintWriter pw = new PrintWriter(filePath);
-        pw.write(jo.toString(4));
+    /** Copies the data of each event in the EventManager, and adds a binary snapshot of the copy to the files of a
+     * snapshot, to be encoded when they are written.
+     *
+     * @param files The files of the snapshot, which are written to disk later on
+     * @param filePath The filepath where we want to save the snapshot
+     * @param eventManager The EventManager that we want to save
+     * @param generation The generation of the snapshot, which tells which changes in the journal it already has
+     */
+    public void addSnapshot(SnapshotFiles files, String filePath, EventManager eventManager, long generation) {
+        List<EventRecord> events = new ArrayList<>();
+        for (UUID id : eventManager.getEvents()) {
+            events.add(new EventRecord(id, eventManager.getEventName(id), eventManager.getEventOrganizer(id),
+                    eventManager.getEventStartTime(id), eventManager.getEventEndTime(id),
+                    eventManager.getEventRoomName(id), eventManager.getEventMaxCapacity(id),
+                    eventManager.getEventAttendees(id), eventManager.getEventSpeaker(id)));
+        }
+        files.add(filePath, () -> {
+            SnapshotWriter writer = new SnapshotWriter(SNAPSHOT_KIND, generation);
+            writer.beginSection(events.size());
+            for (EventRecord event : events) {
+                writer.beginRecord();
+                writer.writeUUID(event.id);
+                writer.writeString(event.name);
+                writer.writeUsername(event.organizer);
+                writer.writeTime(event.startTime);
+                writer.writeTime(event.endTime);
+                writer.writeString(event.roomName);
+                writer.writeInt(event.maxCapacity);
+
+                writer.writeInt(event.attendees.size());
+                for (String attendee : event.attendees) {
+                    writer.writeUsername(attendee);
+                }
+                writer.writeInt(event.speakers.size());
+                for (String speaker : event.speakers) {
+                    writer.writeUsername(speaker);
+                }
+                writer.endRecord();
+            }
+            return writer.toByteArray();
+        });
+    }
 
-        pw.flush();
-        pw.close();
+    // The data of an event, copied for a snapshot
+    private static final class EventRecord {
+        private final UUID id;
+        private final String name;
+        private final String organizer;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final String roomName;
+        private final int maxCapacity;
+        private final List<String> attendees;
+        private final List<String> speakers;
+
+        private EventRecord(UUID id, String name, String organizer, LocalDateTime startTime, LocalDateTime endTime,
+                            String roomName, int maxCapacity, List<String> attendees, List<String> speakers) {
+            this.id = id;
+            this.name = name;
+            this.organizer = organizer;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.roomName = roomName;
+            this.maxCapacity = maxCapacity;
+            this.attendees = attendees;
+            this.speakers = speakers;
+        }
     }
 }
@@ -0,0 +1,168 @@
+package Gateways;
+
+import org.json.JSONTokener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.BitSet;
+
+/**
+ * Reads a JSON file one token at a time, so that the gateways can build their managers while reading the file instead
+ * of first building a JSONObject of the whole file. Only the values read with nextValue are built as JSONObjects or
+ * JSONArrays, which the gateways use for one record at a time. The reader keeps track of whether each object or array
+ * it is in has had a member yet, so that every member after the first has to follow a comma, and the first cannot.
+ */
+public class JSONStreamReader implements Closeable {
+    private final Reader reader;
+    private final JSONTokener tokener;
+    // Whether the object or array at each depth has had a member, the one being read being at depth
+    private final BitSet hasMembers = new BitSet();
+    private int depth;
+
+    /** Opens the JSON file at the filepath
+     *
+     * @param filepath The filepath of the JSON file
+     * @throws IOException Throws exception if problems opening the file
+     */
+    public JSONStreamReader(String filepath) throws IOException {
+        this.reader = Files.newBufferedReader(Paths.get(filepath), StandardCharsets.UTF_8);
+        this.tokener = new JSONTokener(reader);
+    }
+
+    /**
+     * Reads the start of an object.
+     */
+    public void beginObject() {
+        expect('{');
+        enter();
+    }
+
+    /**
+     * Reads the end of an object, once hasNext returns false.
+     */
+    public void endObject() {
+        expect('}');
+        depth--;
+    }
+
+    /**
+     * Reads the start of an array.
+     */
+    public void beginArray() {
+        expect('[');
+        enter();
+    }
+
+    /**
+     * Reads the end of an array, once hasNext returns false.
+     */
+    public void endArray() {
+        expect(']');
+        depth--;
+    }
+
+    /** Returns whether the object or array being read has another member, and reads the comma before it, which every
+     * member but the first needs
+     *
+     * @return true if there is another member, and false if the end of the object or array comes next
+     */
+    public boolean hasNext() {
+        char next = tokener.nextClean();
+        tokener.back();
+        if (next == '}' || next == ']' || next == 0) {
+            return false;
+        }
+        if (hasMembers.get(depth)) {
+            expect(',');
+        } else if (next == ',') {
+            throw tokener.syntaxError("Expected a value but found ','");
+        }
+        hasMembers.set(depth);
+        return true;
+    }
+
+    /** Reads the name of the next member of the object being read
+     *
+     * @return Name of the member, whose value comes next
+     */
+    public String nextName() {
+        expect('"');
+        String name = tokener.nextString('"');
+        expect(':');
+        return name;
+    }
+
+    /** Returns the first character of the next value without reading it
+     *
+     * @return '{' for an object, '[' for an array, and the first character of the value otherwise
+     */
+    public char peek() {
+        char next = tokener.nextClean();
+        tokener.back();
+        return next;
+    }
+
+    /** Reads the next value in full. Text that is not quoted has to be a number, true, false or null, so that 2 values
+     * without a comma between them, which JSONTokener reads as one, are not taken for a string.
+     *
+     * @return JSONObject, JSONArray, String, Number, Boolean or JSONObject.NULL
+     */
+    public Object nextValue() {
+        char next = peek();
+        Object value = tokener.nextValue();
+        if (next != '"' && next != '\'' && value instanceof String) {
+            throw tokener.syntaxError("Expected a value but found '" + value + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Reads past the next value without building it.
+     */
+    public void skipValue() {
+        char next = peek();
+        if (next == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (next == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else {
+            nextValue();
+        }
+    }
+
+    /** Closes the JSON file
+     *
+     * @throws IOException Throws exception if problems closing the file
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Helper method, starts reading an object or array, which has had no members yet
+    private void enter() {
+        depth++;
+        hasMembers.clear(depth);
+    }
+
+    // Helper method, reads the next character that is not whitespace, which has to be the expected one
+    private void expect(char expected) {
+        char next = tokener.nextClean();
+        if (next != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "' but found '" + next + "'");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package Gateways;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes a JSON file one record at a time through a buffered writer, so that the gateways never hold the whole file
+ * in memory. The file is either indented by 4 spaces, like JSONObject.toString(4), or compact with no whitespace.
+ * The JSON is written to a temporary file next to the file, which is only renamed over the file once the whole value
+ * has been written, so the file is never left half written.
+ */
+public class JSONStreamWriter implements Closeable {
+    private static final int INDENT_FACTOR = 4;
+
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final Path path;
+    private final Path temporary;
+    private final Writer writer;
+    private final int indentFactor;
+    private final Deque<Boolean> hasMembers;
+    private boolean afterName;
+    private boolean finished;
+
+    /** Starts writing the JSON file at the filepath, which replaces the file if it already exists once it is closed
+     *
+     * @param filepath The filepath of the JSON file
+     * @param compact Whether to leave out the indentation and line breaks
+     * @throws IOException Throws exception if problems creating the file
+     */
+    public JSONStreamWriter(String filepath, boolean compact) throws IOException {
+        this.path = Paths.get(filepath);
+        this.temporary = Paths.get(filepath + TEMPORARY_EXTENSION);
+        this.writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8);
+        this.indentFactor = compact ? 0 : INDENT_FACTOR;
+        this.hasMembers = new ArrayDeque<>();
+    }
+
+    /** Writes the start of an object
+     *
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    public void beginObject() throws IOException {
+        begin('{');
+    }
+
+    /** Writes the end of the object being written
+     *
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    public void endObject() throws IOException {
+        end('}');
+    }
+
+    /** Writes the start of an array
+     *
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    public void beginArray() throws IOException {
+        begin('[');
+    }
+
+    /** Writes the end of the array being written
+     *
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    public void endArray() throws IOException {
+        end(']');
+    }
+
+    /** Writes the name of the next member of the object being written, whose value has to be written next
+     *
+     * @param name Name of the member
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    public void name(String name) throws IOException {
+        writeSeparator();
+        writer.write(JSONObject.quote(name));
+        writer.write(indentFactor > 0 ? ": " : ":");
+        afterName = true;
+    }
+
+    /** Writes a value in full. Maps, collections and objects with getters are written as JSON objects and arrays,
+     * the same way JSONObject.put would store them.
+     *
+     * @param value Value to be written
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    public void value(Object value) throws IOException {
+        writeSeparator();
+        Object wrapped = JSONObject.wrap(value);
+        int indent = hasMembers.size() * indentFactor;
+        if (wrapped instanceof JSONObject) {
+            ((JSONObject) wrapped).write(writer, indentFactor, indent);
+        } else if (wrapped instanceof JSONArray) {
+            ((JSONArray) wrapped).write(writer, indentFactor, indent);
+        } else {
+            writer.write(JSONObject.valueToString(wrapped));
+        }
+    }
+
+    /** Writes whatever is left in the buffer to the file and closes it. The file replaces the one at the filepath if
+     * the whole value was written, and is deleted otherwise, such as when writing it threw an exception.
+     *
+     * @throws IOException Throws exception if problems writing to the file
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        if (finished) {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            SnapshotFiles.moveAtomically(temporary, path);
+        } else {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Helper method, writes the start of an object or array
+    private void begin(char bracket) throws IOException {
+        writeSeparator();
+        writer.write(bracket);
+        hasMembers.push(false);
+    }
+
+    // Helper method, writes the end of an object or array, on its own line if it has members
+    private void end(char bracket) throws IOException {
+        if (hasMembers.pop()) {
+            writeNewLine(hasMembers.size());
+        }
+        writer.write(bracket);
+        finished = hasMembers.isEmpty();
+    }
+
+    // Helper method, writes the comma and line break that come before a member of an object or array, unless it is
+    // the value right after a name
+    private void writeSeparator() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (hasMembers.isEmpty()) {
+            return;
+        }
+        if (hasMembers.pop()) {
+            writer.write(',');
+        }
+        hasMembers.push(true);
+        writeNewLine(hasMembers.size());
+    }
+
+    // Helper method, starts a new line indented to the depth, unless the file is compact
+    private void writeNewLine(int depth) throws IOException {
+        if (indentFactor > 0) {
+            writer.write('\n');
+            for (int i = 0; i < depth * indentFactor; i++) {
+                writer.write(' ');
+            }
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package Gateways;
+
+import Entities.UserType;
+import UseCases.EventManager;
+import UseCases.MessageManager;
+import UseCases.RoomManager;
+import UseCases.UserManager;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reading and writing to the journal file, which holds the changes made through the managers since their JSON files
+ * were last saved. Each change is appended as one line of JSON, so recording a change never rewrites the file.
+ * When a snapshot of the managers is taken, the journal file is rotated: it is renamed after the generation of the
+ * snapshot, such as journal.3.jsonl, and the changes made afterwards go to a new journal file. The rotated files are
+ * deleted once the snapshot is written. Until then, a manager is replayed with the changes of every rotated file that
+ * is of a later generation than its own snapshot, followed by the changes of the journal file.
+ * Changes can be appended from many threads at once, and are written one whole line at a time.
+ */
+public class JournalGateway {
+    private final Path path;
+    private final String rotatedPrefix;
+    private final String rotatedSuffix;
+    private Writer writer;
+    private int numRecords;
+    private long lastGeneration;
+    // Changes read from the journal files that are yet to be replayed, by manager. The managers can be replayed on
+    // different threads, each one only touching its own list.
+    private final Map<String, List<Change>> records = new ConcurrentHashMap<>();
+
+    // A change read from a journal file, with the generation of that file
+    private static final class Change {
+        private final long generation;
+        private final JSONObject record;
+
+        private Change(long generation, JSONObject record) {
+            this.generation = generation;
+            this.record = record;
+        }
+    }
+
+    /** Creates a JournalGateway for the journal file at the filepath
+     *
+     * @param filepath The filepath of the journal file
+     */
+    public JournalGateway(String filepath) {
+        this.path = Paths.get(filepath);
+        String fileName = path.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        this.rotatedPrefix = fileName.substring(0, extension) + ".";
+        this.rotatedSuffix = fileName.substring(extension);
+    }
+
+    /** Returns the number of changes in the journal file
+     *
+     * @return Number of changes read from the journal files or appended to the journal file since it was last rotated
+     */
+    public synchronized int getNumRecords() {
+        return numRecords;
+    }
+
+    /** Returns the latest generation of the rotated journal files that were read
+     *
+     * @return Latest generation of the rotated journal files, or 0 if there were none
+     */
+    public long getLastGeneration() {
+        return lastGeneration;
+    }
+
+    /** Makes the changes in the journal file again on the managers, in the order they were recorded. A change that was
+     * only partly written when the program stopped is dropped from the file.
+     *
+     * @param um The UserManager read from the user manager JSON file
+     * @param em The EventManager read from the event manager JSON file
+     * @param rm The RoomManager read from the room manager JSON file
+     * @param mm The MessageManager read from the message manager JSON file
+     * @return Number of changes replayed
+     * @throws IOException Throws exception if problems reading from file
+     */
+    public int replay(UserManager um, EventManager em, RoomManager rm, MessageManager mm) throws IOException {
+        read();
+        replay(um, 0);
+        replay(em, 0);
+        replay(rm, 0);
+        replay(mm, 0);
+        return numRecords;
+    }
+
+    /** Reads the changes in the rotated journal files and the journal file, so that the changes of each manager can
+     * be replayed on their own once that manager is read. A change that was only partly written when the program
+     * stopped is dropped from the file.
+     *
+     * @return Number of changes read
+     * @throws IOException Throws exception if problems reading from file
+     */
+    public int read() throws IOException {
+        numRecords = 0;
+        lastGeneration = 0;
+        records.clear();
+        for (Map.Entry<Long, Path> rotated : getRotatedFiles().entrySet()) {
+            read(rotated.getValue(), rotated.getKey());
+            lastGeneration = rotated.getKey();
+        }
+        read(path, Long.MAX_VALUE);
+        return numRecords;
+    }
+
+    // Helper method, reads the changes in a journal file of the generation
+    private void read(Path file, long generation) throws IOException {
+        if (!Files.exists(file))
+            return;
+
+        byte[] content = Files.readAllBytes(file);
+        int start = 0;
+        while (start < content.length) {
+            int end = start;
+            while (end < content.length && content[end] != '\n') end++;
+            if (end == content.length) break;
+
+            JSONObject record;
+            try {
+                record = new JSONObject(new String(content, start, end - start, StandardCharsets.UTF_8));
+            } catch (JSONException e) {
+                break;
+            }
+            records.computeIfAbsent(record.getString("manager"), manager -> new ArrayList<>())
+                    .add(new Change(generation, record));
+            numRecords++;
+            start = end + 1;
+        }
+
+        if (start < content.length) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(start);
+            }
+        }
+    }
+
+    /** Returns whether changes read from the journal file for the manager are yet to be replayed
+     *
+     * @param manager Name of the manager, which is one of "user", "event", "room" and "message"
+     * @return true if the manager has changes that have not been replayed, and false otherwise
+     */
+    public boolean hasChanges(String manager) {
+        return records.containsKey(manager);
+    }
+
+    /** Makes the changes read from the journal file for the UserManager again, in the order they were recorded
+     *
+     * @param um The UserManager read from its snapshot or JSON file
+     * @param savedGeneration The generation of the snapshot it was read from, whose changes it already has
+     */
+    public void replay(UserManager um, long savedGeneration) {
+        for (Change change : records.getOrDefault("user", Collections.emptyList())) {
+            if (change.generation > savedGeneration) {
+                replayUserChange(um, change.record.getString("operation"), change.record.getJSONArray("args"));
+            }
+        }
+        records.remove("user");
+    }
+
+    /** Makes the changes read from the journal file for the EventManager again, in the order they were recorded
+     *
+     * @param em The EventManager read from its snapshot or JSON file
+     * @param savedGeneration The generation of the snapshot it was read from, whose changes it already has
+     */
+    public void replay(EventManager em, long savedGeneration) {
+        for (Change change : records.getOrDefault("event", Collections.emptyList())) {
+            if (change.generation > savedGeneration) {
+                replayEventChange(em, change.record.getString("operation"), change.record.getJSONArray("args"));
+            }
+        }
+        records.remove("event");
+    }
+
+    /** Makes the changes read from the journal file for the RoomManager again, in the order they were recorded
+     *
+     * @param rm The RoomManager read from its snapshot or JSON file
+     * @param savedGeneration The generation of the snapshot it was read from, whose changes it already has
+     */
+    public void replay(RoomManager rm, long savedGeneration) {
+        for (Change change : records.getOrDefault("room", Collections.emptyList())) {
+            if (change.generation > savedGeneration) {
+                replayRoomChange(rm, change.record.getString("operation"), change.record.getJSONArray("args"));
+            }
+        }
+        records.remove("room");
+    }
+
+    /** Makes the changes read from the journal file for the MessageManager again, in the order they were recorded
+     *
+     * @param mm The MessageManager read from its snapshot or JSON file
+     * @param savedGeneration The generation of the snapshot it was read from, whose changes it already has
+     */
+    public void replay(MessageManager mm, long savedGeneration) {
+        for (Change change : records.getOrDefault("message", Collections.emptyList())) {
+            if (change.generation > savedGeneration) {
+                replayMessageChange(mm, change.record.getString("operation"), change.record.getJSONArray("args"));
+            }
+        }
+        records.remove("message");
+    }
+
+    /** Appends a change made through one of the managers to the journal file
+     *
+     * @param manager Name of the manager, which is one of "user", "event", "room" and "message"
+     * @param operation Name of the method that made the change
+     * @param args Arguments of the method
+     * @throws IOException Throws exception if problems writing to file
+     */
+    public void append(String manager, String operation, Object... args) throws IOException {
+        JSONArray argsArray = new JSONArray();
+        for (Object arg : args) {
+            argsArray.put(JSONObject.wrap(arg));
+        }
+        JSONObject record = new JSONObject();
+        record.put("manager", manager);
+        record.put("operation", operation);
+        record.put("args", argsArray);
+        String line = record.toString();
+
+        synchronized (this) {
+            if (writer == null) {
+                writer = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(path.toFile(), true), StandardCharsets.UTF_8));
+            }
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            numRecords++;
+        }
+    }
+
+    /** Renames the journal file after the generation of a snapshot that is being taken, so that the changes made
+     * afterwards go to a new journal file
+     *
+     * @param generation The generation of the snapshot, which has every change in the journal file
+     * @throws IOException Throws exception if problems renaming the file
+     */
+    public synchronized void rotate(long generation) throws IOException {
+        close();
+        if (Files.exists(path)) {
+            Files.move(path, rotatedPath(generation));
+        }
+        numRecords = 0;
+    }
+
+    /** Deletes the rotated journal files up to the generation, once a snapshot of that generation has been written
+     *
+     * @param generation The generation of the snapshot that was written
+     * @throws IOException Throws exception if problems deleting a file
+     */
+    public void deleteRotated(long generation) throws IOException {
+        for (Map.Entry<Long, Path> rotated : getRotatedFiles().headMap(generation, true).entrySet()) {
+            Files.delete(rotated.getValue());
+        }
+    }
+
+    /** Closes the journal file. It is opened again when the next change is appended.
+     *
+     * @throws IOException Throws exception if problems closing the file
+     */
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // Helper method, returns the path of the journal file rotated for the generation
+    private Path rotatedPath(long generation) {
+        return path.resolveSibling(rotatedPrefix + generation + rotatedSuffix);
+    }
+
+    // Helper method, finds the rotated journal files, by generation
+    private TreeMap<Long, Path> getRotatedFiles() throws IOException {
+        TreeMap<Long, Path> rotatedFiles = new TreeMap<>();
+        Path directory = path.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory))
+            return rotatedFiles;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, rotatedPrefix + "*" + rotatedSuffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String generation = name.substring(rotatedPrefix.length(), name.length() - rotatedSuffix.length());
+                try {
+                    rotatedFiles.put(Long.parseLong(generation), file);
+                } catch (NumberFormatException e) {
+                    // not a rotated journal file
+                }
+            }
+        }
+        return rotatedFiles;
+    }
+
+    // Helper method, makes a change recorded from the UserManager again
+    private void replayUserChange(UserManager um, String operation, JSONArray args) {
+        switch (operation) {
+            case "registerUser":
+                UserType userType = args.isNull(0) ? null : UserType.valueOf(args.getString(0));
+                um.registerUser(userType, args.getString(1), args.getString(2), args.getString(3));
+                break;
+            case "addEventAttending":
+                um.addEventAttending(args.getString(0), UUID.fromString(args.getString(1)));
+                break;
+            case "removeEventAttending":
+                um.removeEventAttending(args.getString(0), UUID.fromString(args.getString(1)));
+                break;
+            case "addFriend":
+                um.addFriend(args.getString(0), args.getString(1));
+                break;
+        }
+    }
+
+    // Helper method, makes a change recorded from the EventManager again
+    private void replayEventChange(EventManager em, String operation, JSONArray args) {
+        switch (operation) {
+            case "setEventRoomName":
+                em.setEventRoomName(UUID.fromString(args.getString(0)), args.getString(1));
+                break;
+            case "setMaxCapacity":
+                em.setMaxCapacity(UUID.fromString(args.getString(0)), args.getInt(1));
+                break;
+            case "addEvent":
+                em.addEvent(args.getString(0), args.getString(1), LocalDateTime.parse(args.getString(2)),
+                        LocalDateTime.parse(args.getString(3)), args.getString(4), args.getInt(5),
+                        UUID.fromString(args.getString(6)));
+                break;
+            case "addSpeakers":
+                em.addSpeakers(UUID.fromString(args.getString(0)), toStringList(args.getJSONArray(1)));
+                break;
+            case "removeSpeaker":
+                em.removeSpeaker(UUID.fromString(args.getString(0)), args.getString(1));
+                break;
+            case "removeEvent":
+                em.removeEvent(UUID.fromString(args.getString(0)));
+                break;
+            case "addAttendee":
+                em.addAttendee(UUID.fromString(args.getString(0)), args.getString(1));
+                break;
+            case "removeAttendee":
+                em.removeAttendee(args.getString(0), UUID.fromString(args.getString(1)));
+                break;
+        }
+    }
+
+    // Helper method, makes a change recorded from the RoomManager again
+    private void replayRoomChange(RoomManager rm, String operation, JSONArray args) {
+        switch (operation) {
+            case "addRoom":
+                rm.addRoom(args.getString(0), args.getInt(1));
+                break;
+            case "addEventToSchedule":
+                rm.addEventToSchedule(UUID.fromString(args.getString(0)), args.getString(1),
+                        LocalDateTime.parse(args.getString(2)), LocalDateTime.parse(args.getString(3)));
+                break;
+            case "removeEventFromRoom":
+                rm.removeEventFromRoom(UUID.fromString(args.getString(0)), args.getString(1));
+                break;
+        }
+    }
+
+    // Helper method, makes a change recorded from the MessageManager again
+    private void replayMessageChange(MessageManager mm, String operation, JSONArray args) {
+        switch (operation) {
+            case "sendMessage":
+                mm.addToChat(args.getString(0), args.getString(1), args.getString(2),
+                        LocalDateTime.parse(args.getString(3)));
+                mm.markRead(args.getString(0), args.getString(1));
+                break;
+            case "addToChat":
+                mm.addToChat(args.getString(0), args.getString(1), args.getString(2),
+                        LocalDateTime.parse(args.getString(3)));
+                break;
+            case "setChatCursors":
+                mm.setChatCursors(args.getString(0), args.getString(1), args.getInt(2), args.getInt(3));
+                break;
+            case "markRead":
+                mm.markRead(args.getString(0), args.getString(1));
+                break;
+            case "addAnnouncement":
+                mm.addAnnouncement(args.getString(0), toStringList(args.getJSONArray(1)), args.getString(2),
+                        LocalDateTime.parse(args.getString(3)));
+                break;
+            case "deleteMutualThread":
+                mm.deleteMutualThread(args.getString(0), args.getString(1));
+                break;
+        }
+    }
+
+    // Helper method, converts a JSONArray of strings to a list
+    private List<String> toStringList(JSONArray array) {
+        List<String> list = new ArrayList<>();
+        for (Object item : array) {
+            list.add((String) item);
+        }
+        return list;
+    }
+}
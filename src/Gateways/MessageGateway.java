@@ -1,91 +1,656 @@
 package Gateways;
 
+import Entities.Announcement;
+import Entities.Conversation;
+import Entities.Message;
 import UseCases.MessageManager;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Reading and writing to JSON files for the MessageManager
+ * Reading and writing to JSON files and binary snapshots for the MessageManager
  */
 public class MessageGateway {
+    private static final byte SNAPSHOT_KIND = 'M';
+    private static final byte SEGMENT_KIND = 'S';
+    private static final String INDEX_FILE = "index.snapshot";
+    private static final String SEGMENT_EXTENSION = ".segment";
+    private static final int NUM_SEGMENTS = 256;
 
-    /** Returns a MessageManager object after reading from the message manager JSON file
+    /** Returns a MessageManager object after reading from the message manager JSON file, or from a binary snapshot if
+     * the file starts with the snapshot header
      *
-     * @param filepath The filepath of the message manager JSON file
-     * @return MessageManager created from the data in the JSON file
+     * @param filepath The filepath of the message manager JSON file or snapshot
+     * @return MessageManager created from the data in the file
      * @throws IOException Throws exception if problems reading from file
      */
     public MessageManager readFromFile(String filepath) throws IOException {
-        String content = new String(Files.readAllBytes(Paths.get(filepath)));
-        JSONObject jo = new JSONObject(content);
+        if (SnapshotReader.isSnapshot(filepath))
+            return readSnapshot(filepath);
 
         MessageManager mm = new MessageManager();
 
-        if (jo.isEmpty())
-            return mm;
-
-        for (Object sender : jo.names()) {
-            JSONObject jo2 = (JSONObject) jo.get((String) sender);
-            if (jo2.isEmpty()) continue;
-            for (Object receiver : jo2.names()) {
-                JSONArray messages = jo2.getJSONArray((String) receiver);
-                if (messages == null) continue;
-                for (Object message : messages) {
-                    JSONObject messageInfo = (JSONObject) message;
-                    LocalDateTime time = LocalDateTime.parse((CharSequence) messageInfo.get("time"));
-
-                    if (messageInfo.get("sender").equals(sender)) {
-                        mm.addToSenderChat((String) sender,
-                                (String) receiver,
-                                (String) messageInfo.get("content"),
-                                time);
-                    }
-                    else {
-                        mm.addToReceiverChat((String) receiver,
-                                (String) sender,
-                                (String) messageInfo.get("content"),
-                                time);
+        try (JSONStreamReader reader = new JSONStreamReader(filepath)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("announcements") && reader.peek() == '[') {
+                    readAnnouncements(reader, mm);
+                } else if (name.equals("conversations") && reader.peek() == '[') {
+                    readConversations(reader, mm);
+                } else if (name.equals("chats")) {
+                    readChats(reader, mm);
+                } else {
+                    // Files written before announcements were stored separately hold only the chats of each sender
+                    readSenderChats(reader, mm, name);
+                }
+            }
+            reader.endObject();
+        }
+
+        return mm;
+    }
+
+    // Helper method, reads the announcements, which are each stored once
+    private void readAnnouncements(JSONStreamReader reader, MessageManager mm) {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            JSONObject info = (JSONObject) reader.nextValue();
+            List<String> recipients = new ArrayList<>();
+            for (Object recipient : info.getJSONArray("recipients")) {
+                recipients.add((String) recipient);
+            }
+            mm.addAnnouncement((String) info.get("sender"), recipients, (String) info.get("content"),
+                    LocalDateTime.parse((CharSequence) info.get("time")));
+        }
+        reader.endArray();
+    }
+
+    // Helper method, reads conversations that store each message once, along with the cursors of their users. The
+    // messages are added one at a time, and the cursors once the whole conversation is read.
+    private void readConversations(JSONStreamReader reader, MessageManager mm) {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            JSONArray users = new JSONArray();
+            JSONObject deleteCursors = new JSONObject();
+            JSONObject readCursors = new JSONObject();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("messages")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readMessage((JSONObject) reader.nextValue(), mm);
                     }
+                    reader.endArray();
+                } else if (name.equals("users")) {
+                    users = (JSONArray) reader.nextValue();
+                } else if (name.equals("deleteCursors")) {
+                    deleteCursors = (JSONObject) reader.nextValue();
+                } else if (name.equals("readCursors")) {
+                    readCursors = (JSONObject) reader.nextValue();
+                } else {
+                    reader.skipValue();
                 }
             }
+            reader.endObject();
+
+            for (int i = 0; i < users.length(); i++) {
+                String user = users.getString(i);
+                String collocutor = users.getString(users.length() - 1 - i);
+                mm.setChatCursors(user, collocutor, deleteCursors.optInt(user), readCursors.optInt(user));
+            }
         }
+        reader.endArray();
+    }
+
+    // Helper method, reads the chats of every sender in the older layout where each user has their own copy of every
+    // message. The chats of a sender called "chats" in the layout without announcements are read as well.
+    private void readChats(JSONStreamReader reader, MessageManager mm) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == '[') {
+                readChat(reader, mm, "chats", name);
+            } else {
+                readSenderChats(reader, mm, name);
+            }
+        }
+        reader.endObject();
+    }
+
+    // Helper method, reads the chats of one sender in the older layout
+    private void readSenderChats(JSONStreamReader reader, MessageManager mm, String sender) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String receiver = reader.nextName();
+            readChat(reader, mm, sender, receiver);
+        }
+        reader.endObject();
+    }
+
+    // Helper method, reads one user's copy of a chat in the older layout. Only the first copy of a chat is kept.
+    private void readChat(JSONStreamReader reader, MessageManager mm, String sender, String receiver) {
+        if (!mm.getDirectMessages(sender, receiver).isEmpty()) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            readMessage((JSONObject) reader.nextValue(), mm);
+        }
+        reader.endArray();
+    }
+
+    // Helper method, adds the message to the chat between its sender and receiver
+    private void readMessage(JSONObject messageInfo, MessageManager mm) {
+        mm.addToChat((String) messageInfo.get("sender"),
+                (String) messageInfo.get("receiver"),
+                (String) messageInfo.get("content"),
+                LocalDateTime.parse((CharSequence) messageInfo.get("time")));
+    }
+
+    // Helper method, reads a MessageManager from a binary snapshot, which has a section of conversations followed by a
+    // section of announcements
+    private MessageManager readSnapshot(String filepath) throws IOException {
+        SnapshotReader reader = new SnapshotReader(filepath, SNAPSHOT_KIND);
+        MessageManager mm = new MessageManager();
+
+        int numConversations = reader.beginSection();
+        for (int i = 0; i < numConversations; i++) {
+            reader.beginRecord();
+            int numUsers = reader.readInt();
+            String[] users = new String[numUsers];
+            int[] deleteCursors = new int[numUsers];
+            int[] readCursors = new int[numUsers];
+            for (int j = 0; j < numUsers; j++) {
+                users[j] = reader.readUsername();
+                deleteCursors[j] = reader.readInt();
+                readCursors[j] = reader.readInt();
+            }
+
+            int numMessages = reader.readInt();
+            for (int j = 0; j < numMessages; j++) {
+                String sender = reader.readUsername();
+                String receiver = reader.readUsername();
+                LocalDateTime time = reader.readTime();
+                mm.addToChat(sender, receiver, reader.readString(), time);
+            }
+
+            for (int j = 0; j < numUsers; j++) {
+                mm.setChatCursors(users[j], users[numUsers - 1 - j], deleteCursors[j], readCursors[j]);
+            }
+            reader.endRecord();
+        }
+
+        readAnnouncementSection(reader, mm);
 
         return mm;
     }
 
+    // Helper method, reads the section of announcements of a snapshot or of the index of a store
+    private void readAnnouncementSection(SnapshotReader reader, MessageManager mm) {
+        int numAnnouncements = reader.beginSection();
+        for (int i = 0; i < numAnnouncements; i++) {
+            reader.beginRecord();
+            String sender = reader.readUsername();
+            int numRecipients = reader.readInt();
+            List<String> recipients = new ArrayList<>(numRecipients);
+            for (int j = 0; j < numRecipients; j++) {
+                recipients.add(reader.readUsername());
+            }
+            LocalDateTime time = reader.readTime();
+            mm.addAnnouncement(sender, recipients, reader.readString(), time);
+            reader.endRecord();
+        }
+    }
+
+    /** Returns whether the directory at the path holds a store written by addStore, by checking for its index
+     *
+     * @param directoryPath The path of the directory
+     * @return true if the directory has an index, and false otherwise
+     */
+    public static boolean isStore(String directoryPath) {
+        return Files.exists(Paths.get(directoryPath, INDEX_FILE));
+    }
+
+    /** Returns a MessageManager object after reading the index of a store written by addStore. Only the size,
+     * cursors and latest time of each conversation are read; the messages of a conversation are read from its segment
+     * the first time they are needed.
+     *
+     * @param directoryPath The path of the directory of the store
+     * @return MessageManager created from the data in the index
+     * @throws IOException Throws exception if problems reading from the index
+     */
+    public MessageManager readFromStore(String directoryPath) throws IOException {
+        Path directory = Paths.get(directoryPath);
+        SnapshotReader reader = new SnapshotReader(directory.resolve(INDEX_FILE).toString(), SNAPSHOT_KIND);
+        MessageManager mm = new MessageManager();
+
+        int numConversations = reader.beginSection();
+        for (int i = 0; i < numConversations; i++) {
+            reader.beginRecord();
+            int numUsers = reader.readInt();
+            String[] users = new String[numUsers];
+            int[] deleteCursors = new int[numUsers];
+            int[] readCursors = new int[numUsers];
+            for (int j = 0; j < numUsers; j++) {
+                users[j] = reader.readUsername();
+                deleteCursors[j] = reader.readInt();
+                readCursors[j] = reader.readInt();
+            }
+            String firstUser = users[0];
+            String secondUser = users[numUsers - 1];
+            int size = reader.readInt();
+            LocalDateTime lastTime = reader.readTime();
+            Path segment = segmentPath(directory, firstUser, secondUser);
+
+            Conversation conversation = new Conversation(firstUser, secondUser, size, lastTime,
+                    () -> readConversationMessages(segment, firstUser, secondUser, size));
+            for (int j = 0; j < numUsers; j++) {
+                conversation.setDeleteCursor(users[j], deleteCursors[j]);
+                conversation.setReadCursor(users[j], readCursors[j]);
+            }
+            mm.addConversation(conversation);
+            reader.endRecord();
+        }
+
+        readAnnouncementSection(reader, mm);
+
+        return mm;
+    }
+
+    // Helper method, reads the first size messages of the conversation between the 2 users from its segment, skipping
+    // over the records of the other conversations in the segment. A segment can hold more messages than the index if
+    // the program stopped after writing the segment but before writing the index, and those messages are in the
+    // journal instead.
+    private List<Message> readConversationMessages(Path segment, String firstUser, String secondUser, int size) {
+        try {
+            SnapshotReader reader = new SnapshotReader(segment.toString(), SEGMENT_KIND);
+            int numConversations = reader.beginSection();
+            for (int i = 0; i < numConversations; i++) {
+                reader.beginRecord();
+                if (reader.readUsername().equals(firstUser) && reader.readUsername().equals(secondUser)) {
+                    return readMessages(reader, size);
+                }
+                reader.endRecord();
+            }
+            throw new IOException(segment + " does not have the conversation between " + firstUser + " and "
+                    + secondUser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Helper method, reads the first size messages of a conversation record in a segment
+    private List<Message> readMessages(SnapshotReader reader, int size) {
+        int numMessages = Math.min(reader.readInt(), size);
+        List<Message> messages = new ArrayList<>(numMessages);
+        for (int i = 0; i < numMessages; i++) {
+            String sender = reader.readUsername();
+            String receiver = reader.readUsername();
+            LocalDateTime time = reader.readTime();
+            messages.add(new Message(sender, receiver, reader.readString(), time));
+        }
+        return messages;
+    }
+
+    // Helper method, reads the messages of every conversation in a segment, by the key of the conversation
+    private Map<String, List<Message>> readSegment(Path segment) throws IOException {
+        Map<String, List<Message>> messagesByConversation = new HashMap<>();
+        if (!Files.exists(segment))
+            return messagesByConversation;
+
+        SnapshotReader reader = new SnapshotReader(segment.toString(), SEGMENT_KIND);
+        int numConversations = reader.beginSection();
+        for (int i = 0; i < numConversations; i++) {
+            reader.beginRecord();
+            String key = conversationKey(reader.readUsername(), reader.readUsername());
+            messagesByConversation.put(key, readMessages(reader, Integer.MAX_VALUE));
+            reader.endRecord();
+        }
+        return messagesByConversation;
+    }
+
+    // Helper method, returns the path of the segment that holds the messages of the conversation between the 2 users
+    private Path segmentPath(Path directory, String firstUser, String secondUser) {
+        return segmentPath(directory, segmentOf(firstUser, secondUser));
+    }
+
+    // Helper method, returns the path of the segment with the number
+    private Path segmentPath(Path directory, int segment) {
+        return directory.resolve(String.format("%02x", segment) + SEGMENT_EXTENSION);
+    }
+
+    // Helper method, returns the number of the segment that holds the messages of the conversation between the 2 users.
+    // Conversations are spread over NUM_SEGMENTS segments by the hash of their users.
+    private int segmentOf(String firstUser, String secondUser) {
+        return Math.floorMod(conversationKey(firstUser, secondUser).hashCode(), NUM_SEGMENTS);
+    }
+
+    // Helper method, returns a key that identifies the conversation between the 2 users
+    private String conversationKey(String firstUser, String secondUser) {
+        return firstUser + "\n" + secondUser;
+    }
+
     /** Saves a the data in the MessageManager in a JSON file
      *
      * @param filePath The filepath where we want to save the JSON file
      * @param messageManager The MessageManager that we want to save
-     * @throws FileNotFoundException Error when creating or opening the JSON file at the filepath
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
+     */
+    public void saveToFile(String filePath, MessageManager messageManager) throws IOException {
+        saveToFile(filePath, messageManager, false);
+    }
+
+    /** Saves a the data in the MessageManager in a JSON file, writing one message or announcement at a time
+     *
+     * @param filePath The filepath where we want to save the JSON file
+     * @param messageManager The MessageManager that we want to save
+     * @param compact Whether to leave out the indentation and line breaks, which makes the file smaller
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
      */
-    public void saveToFile(String filePath, MessageManager messageManager) throws FileNotFoundException {
-        JSONObject jo = new JSONObject();
-        List<String> users = messageManager.getUsers();
-        for (String sender : users) {
-            List<String> recipients = messageManager.getInboxes(sender);
-            Map<String, Object> map = new LinkedHashMap<>(recipients.size());
-            for (String recipient : recipients) {
-                map.put(recipient, messageManager.getInbox(sender, recipient));
+    public void saveToFile(String filePath, MessageManager messageManager, boolean compact) throws IOException {
+        try (JSONStreamWriter writer = new JSONStreamWriter(filePath, compact)) {
+            writer.beginObject();
+
+            writer.name("conversations");
+            writer.beginArray();
+            for (Conversation conversation : messageManager.getConversations()) {
+                LinkedHashMap<String, Object> deleteCursors = new LinkedHashMap<>(2);
+                LinkedHashMap<String, Object> readCursors = new LinkedHashMap<>(2);
+                for (String user : conversation.getUsers()) {
+                    deleteCursors.put(user, conversation.getDeleteCursor(user));
+                    readCursors.put(user, conversation.getReadCursor(user));
+                }
+
+                writer.beginObject();
+                writer.name("users");
+                writer.value(conversation.getUsers());
+                writer.name("messages");
+                writer.beginArray();
+                for (Message message : conversation.getMessages()) {
+                    LinkedHashMap<String, Object> map = new LinkedHashMap<>(4);
+
+                    map.put("sender", message.getSender());
+                    map.put("receiver", message.getReceiver());
+                    map.put("time", message.getTime());
+                    map.put("content", message.getContent());
+
+                    writer.value(map);
+                }
+                writer.endArray();
+                writer.name("deleteCursors");
+                writer.value(deleteCursors);
+                writer.name("readCursors");
+                writer.value(readCursors);
+                writer.endObject();
             }
-            jo.put(sender, map);
+            writer.endArray();
+
+            writer.name("announcements");
+            writer.beginArray();
+            for (Announcement announcement : messageManager.getAnnouncements()) {
+                LinkedHashMap<String, Object> map = new LinkedHashMap<>(4);
+
+                map.put("sender", announcement.getSender());
+                map.put("recipients", announcement.getRecipients());
+                map.put("time", announcement.getTime());
+                map.put("content", announcement.getContent());
+
+                writer.value(map);
+            }
+            writer.endArray();
+
+            writer.endObject();
         }
+    }
+
+    /** Copies the conversations and announcements in the MessageManager, and adds a binary snapshot of them to the
+     * files of a snapshot. The messages themselves are not copied, as they never change.
+     *
+     * @param files The files of the snapshot, which are written to disk later on
+     * @param filePath The filepath where we want to save the snapshot
+     * @param messageManager The MessageManager that we want to save
+     * @param generation The generation of the snapshot, which tells which changes in the journal it already has
+     */
+    public void addSnapshot(SnapshotFiles files, String filePath, MessageManager messageManager, long generation) {
+        List<ConversationRecord> conversations = new ArrayList<>();
+        for (Conversation conversation : messageManager.getConversations()) {
+            conversations.add(new ConversationRecord(conversation, new ArrayList<>(conversation.getMessages())));
+        }
+        List<AnnouncementRecord> announcements = copyAnnouncements(messageManager);
+        files.add(filePath, () -> {
+            SnapshotWriter writer = new SnapshotWriter(SNAPSHOT_KIND, generation);
+            writer.beginSection(conversations.size());
+            for (ConversationRecord conversation : conversations) {
+                writer.beginRecord();
+                writeUsersAndCursors(writer, conversation);
+                writer.writeInt(conversation.messages.size());
+                for (Message message : conversation.messages) {
+                    writeMessage(writer, message);
+                }
+                writer.endRecord();
+            }
+
+            writeAnnouncementSection(writer, announcements);
+            return writer.toByteArray();
+        });
+    }
 
-        PrintWriter pw = new PrintWriter(filePath);
-        pw.write(jo.toString(4));
+    /** Copies the index of the store of the MessageManager, along with the messages of the conversations in segments
+     * with new messages, and adds the segments and the index to the files of a snapshot, the index last. A store is a
+     * directory with an index and NUM_SEGMENTS segment files. The index has the cursors, size and latest time of every
+     * conversation, and the announcements, and the messages of each conversation are in one of the segments. Only the
+     * segments that changed are written, and the index is written after them, so it never points past the messages in
+     * a segment. The files are encoded when they are written, and the messages of conversations that have not been
+     * loaded are read from their segment then, which is not changed until the segment is written. The conversations
+     * are marked as saved once the files are written.
+     *
+     * @param files The files of the snapshot, which are written to disk later on
+     * @param directoryPath The path of the directory of the store, which is created if it does not exist
+     * @param messageManager The MessageManager that we want to save
+     * @param generation The generation of the snapshot, which tells which changes in the journal it already has
+     */
+    public void addStore(SnapshotFiles files, String directoryPath, MessageManager messageManager, long generation) {
+        Path directory = Paths.get(directoryPath);
+        List<Conversation> conversations = messageManager.getConversations();
+
+        int[] segments = new int[conversations.size()];
+        boolean[] changed = new boolean[NUM_SEGMENTS];
+        for (int i = 0; i < segments.length; i++) {
+            Conversation conversation = conversations.get(i);
+            List<String> users = conversation.getUsers();
+            segments[i] = segmentOf(users.get(0), users.get(users.size() - 1));
+            if (conversation.hasUnsavedMessages()) {
+                changed[segments[i]] = true;
+            }
+        }
+        // The segments of removed conversations are written again without them, even once they hold no conversations
+        List<List<String>> removed = messageManager.getRemovedConversations();
+        Map<Integer, List<ConversationRecord>> recordsBySegment = new TreeMap<>();
+        for (List<String> users : removed) {
+            changed[segmentOf(users.get(0), users.get(users.size() - 1))] = true;
+        }
+        for (int segment = 0; segment < NUM_SEGMENTS; segment++) {
+            if (changed[segment]) {
+                recordsBySegment.put(segment, new ArrayList<>());
+            }
+        }
 
-        pw.flush();
-        pw.close();
+        List<ConversationRecord> index = new ArrayList<>(conversations.size());
+        for (int i = 0; i < segments.length; i++) {
+            Conversation conversation = conversations.get(i);
+            boolean inChangedSegment = changed[segments[i]];
+            ConversationRecord record = new ConversationRecord(conversation,
+                    inChangedSegment && conversation.isLoaded() ? new ArrayList<>(conversation.getMessages()) : null);
+            index.add(record);
+            if (inChangedSegment) {
+                recordsBySegment.get(segments[i]).add(record);
+            }
+            int numMessages = record.size;
+            files.whenWritten(() -> conversation.markSaved(numMessages));
+        }
+        files.whenWritten(() -> messageManager.markRemovalsSaved(removed));
+        for (Map.Entry<Integer, List<ConversationRecord>> segment : recordsBySegment.entrySet()) {
+            Path path = segmentPath(directory, segment.getKey());
+            List<ConversationRecord> records = segment.getValue();
+            files.add(path.toString(), () -> writeSegment(path, records, generation));
+        }
+
+        List<AnnouncementRecord> announcements = copyAnnouncements(messageManager);
+        files.add(directory.resolve(INDEX_FILE).toString(), () -> {
+            SnapshotWriter writer = new SnapshotWriter(SNAPSHOT_KIND, generation);
+            writer.beginSection(index.size());
+            for (ConversationRecord conversation : index) {
+                writer.beginRecord();
+                writeUsersAndCursors(writer, conversation);
+                writer.writeInt(conversation.size);
+                writer.writeTime(conversation.lastTime);
+                writer.endRecord();
+            }
+            writeAnnouncementSection(writer, announcements);
+            return writer.toByteArray();
+        });
+    }
+
+    /** Reads the generation of the store in the directory, which is the generation of its index
+     *
+     * @param directoryPath The path of the directory of the store
+     * @return Generation of the store, or 0 if there is no store in the directory
+     * @throws IOException Error when reading the index
+     */
+    public static long readStoreGeneration(String directoryPath) throws IOException {
+        return SnapshotReader.readGeneration(Paths.get(directoryPath, INDEX_FILE).toString());
+    }
+
+    // Helper method, writes the messages of the conversations in a segment to memory. The messages of the
+    // conversations that had not been loaded are copied over from the segment as it was.
+    private byte[] writeSegment(Path segment, List<ConversationRecord> conversations, long generation)
+            throws IOException {
+        Map<String, List<Message>> savedMessages = Collections.emptyMap();
+        for (ConversationRecord conversation : conversations) {
+            if (conversation.messages == null) {
+                savedMessages = readSegment(segment);
+                break;
+            }
+        }
+
+        SnapshotWriter writer = new SnapshotWriter(SEGMENT_KIND, generation);
+        writer.beginSection(conversations.size());
+        for (ConversationRecord conversation : conversations) {
+            String firstUser = conversation.users.get(0);
+            String secondUser = conversation.users.get(conversation.users.size() - 1);
+            List<Message> messages = conversation.messages != null ? conversation.messages
+                    : savedMessages.get(conversationKey(firstUser, secondUser)).subList(0, conversation.size);
+
+            writer.beginRecord();
+            writer.writeUsername(firstUser);
+            writer.writeUsername(secondUser);
+            writer.writeInt(messages.size());
+            for (Message message : messages) {
+                writeMessage(writer, message);
+            }
+            writer.endRecord();
+        }
+        return writer.toByteArray();
+    }
+
+    // Helper method, writes the users of a conversation along with their cursors
+    private void writeUsersAndCursors(SnapshotWriter writer, ConversationRecord conversation) throws IOException {
+        writer.writeInt(conversation.users.size());
+        for (int i = 0; i < conversation.users.size(); i++) {
+            writer.writeUsername(conversation.users.get(i));
+            writer.writeInt(conversation.deleteCursors[i]);
+            writer.writeInt(conversation.readCursors[i]);
+        }
+    }
+
+    // Helper method, writes a message of a conversation
+    private void writeMessage(SnapshotWriter writer, Message message) throws IOException {
+        writer.writeUsername(message.getSender());
+        writer.writeUsername(message.getReceiver());
+        writer.writeTime(message.getTime());
+        writer.writeString(message.getContent());
+    }
+
+    // Helper method, copies the announcements with their current recipients, which change when a thread is deleted
+    private List<AnnouncementRecord> copyAnnouncements(MessageManager messageManager) {
+        List<AnnouncementRecord> announcements = new ArrayList<>();
+        for (Announcement announcement : messageManager.getAnnouncements()) {
+            announcements.add(new AnnouncementRecord(announcement));
+        }
+        return announcements;
+    }
+
+    // Helper method, writes the section of announcements of a snapshot or of the index of a store
+    private void writeAnnouncementSection(SnapshotWriter writer, List<AnnouncementRecord> announcements)
+            throws IOException {
+        writer.beginSection(announcements.size());
+        for (AnnouncementRecord announcement : announcements) {
+            writer.beginRecord();
+            writer.writeUsername(announcement.sender);
+            writer.writeInt(announcement.recipients.size());
+            for (String recipient : announcement.recipients) {
+                writer.writeUsername(recipient);
+            }
+            writer.writeTime(announcement.time);
+            writer.writeString(announcement.content);
+            writer.endRecord();
+        }
+    }
+
+    // The index entry of a conversation, copied for a snapshot, along with its messages if they are to be written
+    private static final class ConversationRecord {
+        private final List<String> users;
+        private final int[] deleteCursors;
+        private final int[] readCursors;
+        private final int size;
+        private final LocalDateTime lastTime;
+        private final List<Message> messages;
+
+        private ConversationRecord(Conversation conversation, List<Message> messages) {
+            this.users = conversation.getUsers();
+            this.deleteCursors = new int[users.size()];
+            this.readCursors = new int[users.size()];
+            for (int i = 0; i < users.size(); i++) {
+                deleteCursors[i] = conversation.getDeleteCursor(users.get(i));
+                readCursors[i] = conversation.getReadCursor(users.get(i));
+            }
+            this.size = conversation.size();
+            this.lastTime = conversation.getLastTime();
+            this.messages = messages;
+        }
+    }
+
+    // An announcement, copied for a snapshot
+    private static final class AnnouncementRecord {
+        private final String sender;
+        private final List<String> recipients;
+        private final LocalDateTime time;
+        private final String content;
+
+        private AnnouncementRecord(Announcement announcement) {
+            this.sender = announcement.getSender();
+            this.recipients = announcement.getRecipients();
+            this.time = announcement.getTime();
+            this.content = announcement.getContent();
+        }
     }
 }
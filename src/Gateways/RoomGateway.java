@@ -5,52 +5,82 @@ import UseCases.RoomManager;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
- * Reading and writing to JSON files for the RoomManager
+ * Reading and writing to JSON files and binary snapshots for the RoomManager
  */
 public class RoomGateway {
+    private static final byte SNAPSHOT_KIND = 'R';
 
-    /** Returns a RoomManager object after reading from the room manager JSON file
+    /** Returns a RoomManager object after reading from the room manager JSON file, or from a binary snapshot if the
+     * file starts with the snapshot header
      *
-     * @param filepath The filepath of the room manager JSON file
-     * @return RoomManager created from the data in the JSON file
+     * @param filepath The filepath of the room manager JSON file or snapshot
+     * @return RoomManager created from the data in the file
      * @throws IOException Throws exception if problems reading from file
      */
     public RoomManager readFromFile(String filepath) throws IOException {
-        String content = new String(Files.readAllBytes(Paths.get(filepath)));
-        JSONObject jo = new JSONObject(content);
+        if (SnapshotReader.isSnapshot(filepath))
+            return readSnapshot(filepath);
 
         RoomManager rm = new RoomManager();
 
-        if (jo.isEmpty())
-            return rm;
+        try (JSONStreamReader reader = new JSONStreamReader(filepath)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String roomName = reader.nextName();
+                JSONObject info = (JSONObject) reader.nextValue();
+                readRoom(rm, roomName, info);
+            }
+            reader.endObject();
+        }
 
-        for (String roomName : JSONObject.getNames(jo)) {
-            JSONObject info = (JSONObject) jo.get(roomName);
+        return rm;
+    }
 
-            rm.addRoom(roomName, (Integer) info.get("capacity"));
+    // Helper method, adds the room with the information read from the file
+    private void readRoom(RoomManager rm, String roomName, JSONObject info) {
+        rm.addRoom(roomName, (Integer) info.get("capacity"));
 
-            JSONObject schedule = (JSONObject) info.get("schedule");
+        JSONObject schedule = (JSONObject) info.get("schedule");
 
-            if (schedule.isEmpty())
-                continue;
+        if (schedule.isEmpty())
+            return;
+
+        for (Object id : schedule.names()) {
+            UUID eventId = UUID.fromString((String) id);
+            JSONArray timing = (JSONArray) schedule.get((String) id);
+            LocalDateTime startTime = LocalDateTime.parse(timing.getString(0));
+            LocalDateTime endTime = LocalDateTime.parse(timing.getString(1));
+            rm.addEventToSchedule(eventId, roomName, startTime, endTime);
+        }
+    }
 
-            for (Object id : schedule.names()) {
-                UUID eventId = UUID.fromString((String) id);
-                JSONArray timing = (JSONArray) schedule.get((String) id);
-                LocalDateTime startTime = LocalDateTime.parse(timing.getString(0));
-                LocalDateTime endTime = LocalDateTime.parse(timing.getString(1));
+    // Helper method, reads a RoomManager from a binary snapshot
+    private RoomManager readSnapshot(String filepath) throws IOException {
+        SnapshotReader reader = new SnapshotReader(filepath, SNAPSHOT_KIND);
+        RoomManager rm = new RoomManager();
+
+        int numRooms = reader.beginSection();
+        for (int i = 0; i < numRooms; i++) {
+            reader.beginRecord();
+            String roomName = reader.readString();
+            rm.addRoom(roomName, reader.readInt());
+
+            int numEvents = reader.readInt();
+            for (int j = 0; j < numEvents; j++) {
+                UUID eventId = reader.readUUID();
+                LocalDateTime startTime = reader.readTime();
+                LocalDateTime endTime = reader.readTime();
                 rm.addEventToSchedule(eventId, roomName, startTime, endTime);
             }
+            reader.endRecord();
         }
 
         return rm;
@@ -60,23 +90,68 @@ public class RoomGateway {
      *
      * @param filePath The filepath where we want to save the JSON file
      * @param roomManager The RoomManager that we want to save
-     * @throws FileNotFoundException Error when creating or opening the JSON file at the filepath
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
      */
-    public void saveToFile(String filePath, RoomManager roomManager) throws FileNotFoundException {
-        JSONObject jo = new JSONObject();
-        for (String room : roomManager.getRooms()) {
-            LinkedHashMap<String, Object> map = new LinkedHashMap<>(3);
+    public void saveToFile(String filePath, RoomManager roomManager) throws IOException {
+        saveToFile(filePath, roomManager, false);
+    }
 
-            map.put("capacity", roomManager.getRoomCapacity(room));
-            map.put("schedule", roomManager.getRoomSchedule(room));
+    /** Saves a the data in the RoomManager in a JSON file, writing one room at a time
+     *
+     * @param filePath The filepath where we want to save the JSON file
+     * @param roomManager The RoomManager that we want to save
+     * @param compact Whether to leave out the indentation and line breaks, which makes the file smaller
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
+     */
+    public void saveToFile(String filePath, RoomManager roomManager, boolean compact) throws IOException {
+        try (JSONStreamWriter writer = new JSONStreamWriter(filePath, compact)) {
+            writer.beginObject();
+            for (String room : roomManager.getRooms()) {
+                LinkedHashMap<String, Object> map = new LinkedHashMap<>(3);
 
-            jo.put(room, map);
-        }
+                map.put("capacity", roomManager.getRoomCapacity(room));
+                map.put("schedule", roomManager.getRoomSchedule(room));
 
-        PrintWriter pw = new PrintWriter(filePath);
-        pw.write(jo.toString(4));
+                writer.name(room);
+                writer.value(map);
+            }
+            writer.endObject();
+        }
+    }
 
-        pw.flush();
-        pw.close();
+    /** Copies the capacities and schedules of the rooms in the RoomManager, and adds a binary snapshot of them to the
+     * files of a snapshot.
+     *
+     * @param files The files of the snapshot, which are written to disk later on
+     * @param filePath The filepath where we want to save the snapshot
+     * @param roomManager The RoomManager that we want to save
+     * @param generation The generation of the snapshot, which tells which changes in the journal it already has
+     */
+    public void addSnapshot(SnapshotFiles files, String filePath, RoomManager roomManager, long generation) {
+        Map<String, Integer> capacities = new LinkedHashMap<>();
+        Map<String, Map<UUID, List<LocalDateTime>>> schedules = new LinkedHashMap<>();
+        for (String room : roomManager.getRooms()) {
+            capacities.put(room, roomManager.getRoomCapacity(room));
+            schedules.put(room, roomManager.getRoomSchedule(room));
+        }
+        files.add(filePath, () -> {
+            SnapshotWriter writer = new SnapshotWriter(SNAPSHOT_KIND, generation);
+            writer.beginSection(capacities.size());
+            for (Map.Entry<String, Integer> room : capacities.entrySet()) {
+                writer.beginRecord();
+                writer.writeString(room.getKey());
+                writer.writeInt(room.getValue());
+
+                Map<UUID, List<LocalDateTime>> schedule = schedules.get(room.getKey());
+                writer.writeInt(schedule.size());
+                for (Map.Entry<UUID, List<LocalDateTime>> timeSlot : schedule.entrySet()) {
+                    writer.writeUUID(timeSlot.getKey());
+                    writer.writeTime(timeSlot.getValue().get(0));
+                    writer.writeTime(timeSlot.getValue().get(1));
+                }
+                writer.endRecord();
+            }
+            return writer.toByteArray();
+        });
     }
 }
@@ -0,0 +1,125 @@
+package Gateways;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The files of a snapshot of the managers, which have not been written to disk yet. Taking the snapshot only copies
+ * the state of the managers that can change, while changes to them are held back. The content of each file is only
+ * encoded from that copy when the files are written, on another thread and after changes are let through again, so
+ * that changes never wait for the snapshot to be encoded or for the disk.
+ * Every file is written to a temporary file next to it and then renamed over it, so a file is always either as it was
+ * or fully replaced, even if the program stops while it is being written. The files are written in the order they were
+ * added, so a file that points into others can be added after them.
+ */
+public class SnapshotFiles {
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final Map<Path, Content> files = new LinkedHashMap<>();
+    private final List<Runnable> actions = new ArrayList<>();
+
+    /**
+     * Encodes the content of a file of the snapshot, from a copy of the managers taken along with the snapshot. It may
+     * read files that the snapshot does not write, but not the managers themselves.
+     */
+    public interface Content {
+        byte[] encode() throws IOException;
+    }
+
+    /** Adds a file to the snapshot, replacing the content added for that filepath before if any
+     *
+     * @param filepath The filepath of the file
+     * @param content Content of the file
+     */
+    public void add(String filepath, byte[] content) {
+        add(filepath, () -> content);
+    }
+
+    /** Adds a file to the snapshot whose content is only encoded when the file is written, replacing the content added
+     * for that filepath before if any
+     *
+     * @param filepath The filepath of the file
+     * @param content Encodes the content of the file
+     */
+    public void add(String filepath, Content content) {
+        files.put(Paths.get(filepath), content);
+    }
+
+    /** Adds an action to run once every file of the snapshot has been written, such as marking what was saved
+     *
+     * @param action Action to run, on the thread that calls written
+     */
+    public void whenWritten(Runnable action) {
+        actions.add(action);
+    }
+
+    /** Returns whether the snapshot has no files
+     *
+     * @return true if no file was added, and false otherwise
+     */
+    public boolean isEmpty() {
+        return files.isEmpty();
+    }
+
+    /** Encodes and writes every file of the snapshot to disk, one at a time in the order they were added, creating
+     * their directories if needed
+     *
+     * @throws IOException Throws exception if problems encoding or writing a file, in which case the files after it are
+     * left as they were
+     */
+    public void write() throws IOException {
+        for (Map.Entry<Path, Content> file : files.entrySet()) {
+            writeAtomically(file.getKey(), file.getValue().encode());
+        }
+    }
+
+    /**
+     * Runs the actions added with whenWritten, once write has returned.
+     */
+    public void written() {
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    /** Writes a file to a temporary file next to it, forces it to disk and renames it over the file
+     *
+     * @param path The path of the file
+     * @param content Content of the file
+     * @throws IOException Throws exception if problems writing the file
+     */
+    public static void writeAtomically(Path path, byte[] content) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(path.getFileName() + TEMPORARY_EXTENSION);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        moveAtomically(temporary, path);
+    }
+
+    /** Renames a file that was fully written over another, so that readers see either the old or the new file
+     *
+     * @param source The path of the file that was written
+     * @param target The path of the file to replace
+     * @throws IOException Throws exception if problems renaming the file
+     */
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
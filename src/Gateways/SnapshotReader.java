@@ -0,0 +1,184 @@
+package Gateways;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Reads a binary snapshot of a manager written by SnapshotWriter. The file is memory-mapped, so it is read straight
+ * from the page cache without being copied into the heap first.
+ */
+public class SnapshotReader {
+    private final MappedByteBuffer buffer;
+    private final String[] usernames;
+    private int recordEnd;
+
+    /** Returns whether the file at the filepath is a snapshot, by checking the magic number at its start
+     *
+     * @param filepath The filepath of the file
+     * @return true if the file starts with SnapshotWriter.MAGIC, and false otherwise
+     * @throws IOException Throws exception if problems reading from file
+     */
+    public static boolean isSnapshot(String filepath) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(Paths.get(filepath)))) {
+            return in.readInt() == SnapshotWriter.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /** Reads the generation in the header of the snapshot at the filepath, without mapping the rest of it
+     *
+     * @param filepath The filepath of the file
+     * @return Generation of the snapshot, or 0 if there is no file at the filepath or it is not a snapshot of a
+     * version that has a generation
+     * @throws IOException Throws exception if problems reading from file
+     */
+    public static long readGeneration(String filepath) throws IOException {
+        if (!Files.exists(Paths.get(filepath))) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(Paths.get(filepath)))) {
+            if (in.readInt() != SnapshotWriter.MAGIC || in.readShort() < 2) {
+                return 0;
+            }
+            in.readByte();
+            return in.readLong();
+        } catch (EOFException e) {
+            return 0;
+        }
+    }
+
+    /** Maps the snapshot file at the filepath, checks its header and reads its username dictionary
+     *
+     * @param filepath The filepath of the snapshot file
+     * @param kind The kind of manager that the snapshot has to be of
+     * @throws IOException Throws exception if problems reading from file, or if it is not a snapshot of that kind in
+     * a version that can be read
+     */
+    public SnapshotReader(String filepath, byte kind) throws IOException {
+        Path path = Paths.get(filepath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != SnapshotWriter.MAGIC) {
+            throw new IOException(filepath + " is not a snapshot");
+        }
+        short version = buffer.getShort();
+        if (version < 1 || version > SnapshotWriter.VERSION) {
+            throw new IOException(filepath + " is a snapshot of version " + version + ", which cannot be read");
+        }
+        if (buffer.get() != kind) {
+            throw new IOException(filepath + " is a snapshot of a different manager");
+        }
+        if (version > 1) {
+            buffer.getLong(); // generation, which is read on its own by readGeneration
+        }
+
+        int dictionaryPosition = (int) buffer.getLong();
+        int sectionsPosition = buffer.position();
+        buffer.position(dictionaryPosition);
+        this.usernames = new String[buffer.getInt()];
+        for (int i = 0; i < usernames.length; i++) {
+            usernames[i] = readBytes();
+        }
+        buffer.position(sectionsPosition);
+    }
+
+    /** Starts reading a section of the snapshot
+     *
+     * @return Number of records in the section
+     */
+    public int beginSection() {
+        return buffer.getInt();
+    }
+
+    /**
+     * Starts reading a record.
+     */
+    public void beginRecord() {
+        int length = buffer.getInt();
+        recordEnd = buffer.position() + length;
+    }
+
+    /**
+     * Moves to the end of the record, skipping whatever was not read, such as values added in later versions.
+     */
+    public void endRecord() {
+        buffer.position(recordEnd);
+    }
+
+    /** Reads a byte of the record
+     *
+     * @return Byte that was read
+     */
+    public byte readByte() {
+        return buffer.get();
+    }
+
+    /** Reads an int of the record
+     *
+     * @return Int that was read
+     */
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    /** Reads a string of the record
+     *
+     * @return String that was read, which may be null
+     */
+    public String readString() {
+        return readBytes();
+    }
+
+    /** Reads a username of the record
+     *
+     * @return Username that was read
+     */
+    public String readUsername() {
+        return usernames[buffer.getInt()];
+    }
+
+    /** Reads a UUID of the record
+     *
+     * @return UUID that was read
+     */
+    public UUID readUUID() {
+        long mostSignificantBits = buffer.getLong();
+        long leastSignificantBits = buffer.getLong();
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /** Reads a time of the record
+     *
+     * @return Time that was read
+     */
+    public LocalDateTime readTime() {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    // Helper method, reads the length and the UTF-8 bytes of a string
+    private String readBytes() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,184 @@
+package Gateways;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a binary snapshot of a manager, which SnapshotReader loads much faster than the JSON files.
+ *
+ * A snapshot starts with a header: the MAGIC number, the format VERSION, a byte for the kind of manager, the
+ * generation of the snapshot, and the position of the username dictionary. The sections of the snapshot follow, each
+ * one being a count and then that many records, where every record is prefixed by its length in bytes. Strings are
+ * written as their length and their UTF-8 bytes, UUIDs as two longs, and times as epoch seconds (in UTC) and
+ * nanoseconds. Usernames are written as their index in the dictionary, which is written at the end of the snapshot
+ * once every username is known.
+ * The snapshot is written to memory, so that it is a copy of the manager at the time it was written, which can then be
+ * written to disk on another thread with SnapshotFiles.
+ */
+public class SnapshotWriter {
+    /**
+     * The first 4 bytes of every snapshot, "CSNP" in ASCII.
+     */
+    public static final int MAGIC = 0x43534E50;
+
+    /**
+     * The version of the snapshot format written by this class.
+     */
+    public static final short VERSION = 2;
+
+    // Position of the dictionary position in the header, which comes after the magic number, version, kind and
+    // generation
+    static final int DICTIONARY_POSITION_OFFSET = 4 + 2 + 1 + 8;
+
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream recordBytes;
+    private final DataOutputStream record;
+    private final HashMap<String, Integer> usernameIds;
+    private final List<String> usernames;
+
+    /** Starts a snapshot and writes its header
+     *
+     * @param kind The kind of manager in the snapshot
+     * @param generation The generation of the snapshot, which tells which changes in the journal it already has
+     * @throws IOException Throws exception if problems writing
+     */
+    public SnapshotWriter(byte kind, long generation) throws IOException {
+        this.bytes = new ByteArrayOutputStream(1 << 16);
+        this.out = new DataOutputStream(bytes);
+        this.recordBytes = new ByteArrayOutputStream();
+        this.record = new DataOutputStream(recordBytes);
+        this.usernameIds = new HashMap<>();
+        this.usernames = new ArrayList<>();
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(kind);
+        out.writeLong(generation);
+        out.writeLong(0);
+    }
+
+    /** Starts a section of the snapshot
+     *
+     * @param count Number of records in the section
+     * @throws IOException Throws exception if problems writing
+     */
+    public void beginSection(int count) throws IOException {
+        out.writeInt(count);
+    }
+
+    /**
+     * Starts a record. Everything written until endRecord is part of the record.
+     */
+    public void beginRecord() {
+        recordBytes.reset();
+    }
+
+    /** Writes the record to the snapshot, prefixed by its length
+     *
+     * @throws IOException Throws exception if problems writing
+     */
+    public void endRecord() throws IOException {
+        out.writeInt(recordBytes.size());
+        recordBytes.writeTo(out);
+    }
+
+    /** Writes a byte to the record
+     *
+     * @param value Byte to be written
+     * @throws IOException Throws exception if problems writing
+     */
+    public void writeByte(int value) throws IOException {
+        record.writeByte(value);
+    }
+
+    /** Writes an int to the record
+     *
+     * @param value Int to be written
+     * @throws IOException Throws exception if problems writing
+     */
+    public void writeInt(int value) throws IOException {
+        record.writeInt(value);
+    }
+
+    /** Writes a string to the record, as its length and its UTF-8 bytes, or a length of -1 for null
+     *
+     * @param value String to be written
+     * @throws IOException Throws exception if problems writing
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            record.writeInt(-1);
+        } else {
+            writeBytes(record, value);
+        }
+    }
+
+    /** Writes a username to the record, as its index in the dictionary
+     *
+     * @param username Username to be written
+     * @throws IOException Throws exception if problems writing
+     */
+    public void writeUsername(String username) throws IOException {
+        Integer id = usernameIds.get(username);
+        if (id == null) {
+            id = usernames.size();
+            usernameIds.put(username, id);
+            usernames.add(username);
+        }
+        record.writeInt(id);
+    }
+
+    /** Writes a UUID to the record, as two longs
+     *
+     * @param id UUID to be written
+     * @throws IOException Throws exception if problems writing
+     */
+    public void writeUUID(UUID id) throws IOException {
+        record.writeLong(id.getMostSignificantBits());
+        record.writeLong(id.getLeastSignificantBits());
+    }
+
+    /** Writes a time to the record, as epoch seconds and nanoseconds
+     *
+     * @param time Time to be written
+     * @throws IOException Throws exception if problems writing
+     */
+    public void writeTime(LocalDateTime time) throws IOException {
+        record.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        record.writeInt(time.getNano());
+    }
+
+    /** Writes the username dictionary at the end of the snapshot, points the header to it, and returns the snapshot
+     *
+     * @return Bytes of the snapshot
+     * @throws IOException Throws exception if problems writing
+     */
+    public byte[] toByteArray() throws IOException {
+        long dictionaryPosition = bytes.size();
+        out.writeInt(usernames.size());
+        for (String username : usernames) {
+            writeBytes(out, username);
+        }
+
+        byte[] snapshot = bytes.toByteArray();
+        ByteBuffer.wrap(snapshot).putLong(DICTIONARY_POSITION_OFFSET, dictionaryPosition);
+        return snapshot;
+    }
+
+    // Helper method, writes the length and the UTF-8 bytes of the string
+    private static void writeBytes(DataOutputStream stream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+}
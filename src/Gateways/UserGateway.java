@@ -6,48 +6,83 @@ import UseCases.UserManager;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Reading and writing to JSON files for the UserManager
+ * Reading and writing to JSON files and binary snapshots for the UserManager
  */
 public class UserGateway {
+    private static final byte SNAPSHOT_KIND = 'U';
 
-    /** Returns a UserManager object after reading from the user manager JSON file
+    /** Returns a UserManager object after reading from the user manager JSON file, or from a binary snapshot if the
+     * file starts with the snapshot header
      *
-     * @param filepath The filepath of the user manager JSON file
-     * @return UserManager created from the data in the JSON file
+     * @param filepath The filepath of the user manager JSON file or snapshot
+     * @return UserManager created from the data in the file
      * @throws IOException Throws exception if problems reading from file
      */
     public UserManager readFromFile(String filepath) throws IOException {
-        String content = new String(Files.readAllBytes(Paths.get(filepath)));
-        JSONObject jo = new JSONObject(content);
+        if (SnapshotReader.isSnapshot(filepath))
+            return readSnapshot(filepath);
 
         UserManager um = new UserManager();
 
-        if (jo.isEmpty())
-            return um;
+        try (JSONStreamReader reader = new JSONStreamReader(filepath)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String username = reader.nextName();
+                JSONObject info = (JSONObject) reader.nextValue();
+                readUser(um, username, info);
+            }
+            reader.endObject();
+        }
+
+        return um;
+    }
+
+    // Helper method, registers the user with the information read from the file
+    private void readUser(UserManager um, String username, JSONObject info) {
+        UserType userType = UserType.valueOf((String) info.get("userType"));
+
+        um.registerUser(userType, (String) info.get("name"), username, (String) info.get("password"));
 
-        for (String username : JSONObject.getNames(jo)) {
-            JSONObject info = (JSONObject) jo.get(username);
-            UserType userType = UserType.valueOf((String) info.get("userType"));
+        JSONArray eventIds = (JSONArray) info.get("eventsAttending");
+        for (Object eventId : eventIds) {
+            um.addEventAttending(username, UUID.fromString((String) eventId));
+        }
+        JSONArray friends = (JSONArray) info.get("friends");
+        for (Object friend : friends) {
+            um.addFriend(username, (String) friend);
+        }
+    }
 
-            um.registerUser(userType, (String) info.get("name"), username, (String) info.get("password"));
+    // Helper method, reads a UserManager from a binary snapshot
+    private UserManager readSnapshot(String filepath) throws IOException {
+        SnapshotReader reader = new SnapshotReader(filepath, SNAPSHOT_KIND);
+        UserManager um = new UserManager();
 
-            JSONArray eventIds = (JSONArray) info.get("eventsAttending");
-            for (Object eventId : eventIds) {
-                um.addEventAttending(username, UUID.fromString((String) eventId));
+        int numUsers = reader.beginSection();
+        for (int i = 0; i < numUsers; i++) {
+            reader.beginRecord();
+            String username = reader.readUsername();
+            UserType userType = UserType.valueOf(reader.readString());
+            String name = reader.readString();
+            String password = reader.readString();
+            um.registerUser(userType, name, username, password);
+
+            int numEvents = reader.readInt();
+            for (int j = 0; j < numEvents; j++) {
+                um.addEventAttending(username, reader.readUUID());
             }
-            JSONArray friends = (JSONArray) info.get("friends");
-            for (Object friend : friends) {
-                um.addFriend(username, (String) friend);
+            int numFriends = reader.readInt();
+            for (int j = 0; j < numFriends; j++) {
+                um.addFriend(username, reader.readUsername());
             }
+            reader.endRecord();
         }
 
         return um;
@@ -57,26 +92,94 @@ public class UserGateway {
      *
      * @param filePath The filepath where we want to save the JSON file
      * @param userManager The UserManager that we want to save
-     * @throws FileNotFoundException Error when creating or opening the JSON file at the filepath
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
      */
-    public void saveToFile(String filePath, UserManager userManager) throws FileNotFoundException {
-        JSONObject jo = new JSONObject();
-        for (String username : userManager.getUsernameList()) {
-            LinkedHashMap<String, Object> map = new LinkedHashMap<>(6);
-
-            map.put("userType", userManager.getUserType(username).toString());
-            map.put("name", userManager.getName(username));
-            map.put("password", userManager.getPassword(username));
-            map.put("eventsAttending", userManager.getEventsAttending(username));
-            map.put("friends", userManager.getFriends(username));
+    public void saveToFile(String filePath, UserManager userManager) throws IOException {
+        saveToFile(filePath, userManager, false);
+    }
 
-            jo.put(username, map);
+    /** Saves a the data in the UserManager in a JSON file, writing one user at a time
+     *
+     * @param filePath The filepath where we want to save the JSON file
+     * @param userManager The UserManager that we want to save
+     * @param compact Whether to leave out the indentation and line breaks, which makes the file smaller
+     * @throws IOException Error when creating or writing to the JSON file at the filepath
+     */
+    public void saveToFile(String filePath, UserManager userManager, boolean compact) throws IOException {
+        try (JSONStreamWriter writer = new JSONStreamWriter(filePath, compact)) {
+            writer.beginObject();
+            for (String username : userManager.getUsernameList()) {
+                LinkedHashMap<String, Object> map = new LinkedHashMap<>(6);
+
+                map.put("userType", userManager.getUserType(username).toString());
+                map.put("name", userManager.getName(username));
+                map.put("password", userManager.getPassword(username));
+                map.put("eventsAttending", userManager.getEventsAttending(username));
+                map.put("friends", userManager.getFriends(username));
+
+                writer.name(username);
+                writer.value(map);
+            }
+            writer.endObject();
         }
+    }
 
-        PrintWriter pw = new PrintWriter(filePath);
-        pw.write(jo.toString(4));
+    /** Copies the data in the UserManager, and adds a binary snapshot of the copy to the files of a snapshot. The
+     * copy is encoded when the files are written.
+     *
+     * @param files The files of the snapshot, which are written to disk later on
+     * @param filePath The filepath where we want to save the snapshot
+     * @param userManager The UserManager that we want to save
+     * @param generation The generation of the snapshot, which tells which changes in the journal it already has
+     */
+    public void addSnapshot(SnapshotFiles files, String filePath, UserManager userManager, long generation) {
+        List<UserRecord> users = new ArrayList<>();
+        for (String username : userManager.getUsernameList()) {
+            users.add(new UserRecord(username, userManager.getUserType(username), userManager.getName(username),
+                    userManager.getPassword(username), userManager.getEventsAttending(username),
+                    userManager.getFriends(username)));
+        }
+        files.add(filePath, () -> {
+            SnapshotWriter writer = new SnapshotWriter(SNAPSHOT_KIND, generation);
+            writer.beginSection(users.size());
+            for (UserRecord user : users) {
+                writer.beginRecord();
+                writer.writeUsername(user.username);
+                writer.writeString(user.type.toString());
+                writer.writeString(user.name);
+                writer.writeString(user.password);
+
+                writer.writeInt(user.eventsAttending.size());
+                for (UUID eventId : user.eventsAttending) {
+                    writer.writeUUID(eventId);
+                }
+                writer.writeInt(user.friends.size());
+                for (String friend : user.friends) {
+                    writer.writeUsername(friend);
+                }
+                writer.endRecord();
+            }
+            return writer.toByteArray();
+        });
+    }
 
-        pw.flush();
-        pw.close();
+    // The data of a user, copied for a snapshot
+    private static final class UserRecord {
+        private final String username;
+        private final UserType type;
+        private final String name;
+        private final String password;
+        private final List<UUID> eventsAttending;
+        private final List<String> friends;
+
+        private UserRecord(String username, UserType type, String name, String password, List<UUID> eventsAttending,
+                           List<String> friends) {
+            this.username = username;
+            this.type = type;
+            this.name = name;
+            this.password = password;
+            this.eventsAttending = eventsAttending;
+            this.friends = friends;
+        }
     }
 }
@@ -0,0 +1,30 @@
+package Server;
+
+/**
+ * Thrown by a handler when a request cannot be served, along with the HTTP status to answer it with.
+ */
+class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    /**
+     * The constructor takes the HTTP status and the message to send back.
+     *
+     * @param status HTTP status of the response
+     * @param message Message explaining why the request cannot be served
+     */
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Implements Getter, getStatus, for status.
+     *
+     * @return HTTP status of the response
+     */
+    int getStatus() {
+        return status;
+    }
+}
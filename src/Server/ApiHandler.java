@@ -0,0 +1,77 @@
+package Server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The base of the API handlers. It reads the request, passes it to the handler and sends back the JSON response.
+ * Requests that cannot be served are answered with an error status and message, so a handler only has to throw an
+ * ApiException, and a malformed body or parameter is answered with 400.
+ */
+abstract class ApiHandler implements HttpHandler {
+
+    /**
+     * Serves a request.
+     *
+     * @param request Request to serve
+     * @return Response to send back
+     */
+    abstract ApiResponse handle(ApiRequest request);
+
+    /**
+     * Serves the request of the exchange and sends back the response.
+     *
+     * @param exchange Exchange holding the request
+     * @throws IOException Throws exception if problems sending the response
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            ApiResponse response;
+            try {
+                response = handle(new ApiRequest(exchange));
+            } catch (ApiException e) {
+                response = ApiResponse.error(e.getStatus(), e.getMessage());
+            } catch (JSONException | DateTimeParseException | IllegalArgumentException e) {
+                response = ApiResponse.error(400, e.getMessage());
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                response = ApiResponse.error(500, "Internal error");
+            }
+            byte[] body = response.getBody().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.getStatus(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Creates the exception for a request whose method is not served on its path.
+     *
+     * @param request Request that cannot be served
+     * @return Exception to throw
+     */
+    static ApiException methodNotAllowed(ApiRequest request) {
+        return new ApiException(405, request.getMethod() + " is not allowed here");
+    }
+
+    /**
+     * Creates the exception for a request for something that does not exist.
+     *
+     * @param what Description of what does not exist
+     * @return Exception to throw
+     */
+    static ApiException notFound(String what) {
+        return new ApiException(404, what + " does not exist");
+    }
+}
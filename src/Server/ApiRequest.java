@@ -0,0 +1,104 @@
+package Server;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An API request, with its path split into segments after the path of its handler, its query parameters and its
+ * JSON body.
+ */
+final class ApiRequest {
+    private final String method;
+    private final List<String> path;
+    private final Map<String, String> query;
+    private final String body;
+
+    /**
+     * The constructor reads the request of the exchange.
+     *
+     * @param exchange Exchange holding the request
+     * @throws IOException Throws exception if problems reading the body
+     */
+    ApiRequest(HttpExchange exchange) throws IOException {
+        this.method = exchange.getRequestMethod();
+        String contextPath = exchange.getHttpContext().getPath();
+        String rest = exchange.getRequestURI().getRawPath().substring(contextPath.length());
+        if (!rest.isEmpty() && !rest.startsWith("/")) {
+            throw new ApiException(404, "No such resource");
+        }
+        this.path = new ArrayList<>();
+        for (String segment : rest.split("/")) {
+            if (!segment.isEmpty()) {
+                path.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        this.query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals > 0) {
+                    query.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        this.body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Implements Getter, getMethod, for method.
+     *
+     * @return HTTP method of the request
+     */
+    String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the number of segments in the path after the path of the handler.
+     *
+     * @return Number of segments
+     */
+    int getPathSize() {
+        return path.size();
+    }
+
+    /**
+     * Returns a segment of the path after the path of the handler.
+     *
+     * @param index Index of the segment
+     * @return Decoded segment
+     */
+    String getPathSegment(int index) {
+        return path.get(index);
+    }
+
+    /**
+     * Returns a query parameter of the request.
+     *
+     * @param name Name of the parameter
+     * @param defaultValue Value to return if the parameter is not set
+     * @return Decoded value of the parameter, or defaultValue if it is not set
+     */
+    String getQuery(String name, String defaultValue) {
+        return query.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Returns the body of the request as a JSON object.
+     *
+     * @return Body of the request, or an empty object if it has no body
+     */
+    JSONObject getBody() {
+        return body.isBlank() ? new JSONObject() : new JSONObject(body);
+    }
+}
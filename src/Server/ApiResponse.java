@@ -0,0 +1,78 @@
+package Server;
+
+import org.json.JSONObject;
+
+/**
+ * A response to an API request: an HTTP status and a JSON body, which is a JSONObject or a JSONArray.
+ */
+final class ApiResponse {
+    private final int status;
+    private final Object body;
+
+    private ApiResponse(int status, Object body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * Creates a response with status 200.
+     *
+     * @param body JSONObject or JSONArray to send back
+     * @return Response with the body
+     */
+    static ApiResponse ok(Object body) {
+        return new ApiResponse(200, body);
+    }
+
+    /**
+     * Creates a response with a status and a body.
+     *
+     * @param status HTTP status of the response
+     * @param body JSONObject or JSONArray to send back
+     * @return Response with the status and body
+     */
+    static ApiResponse of(int status, Object body) {
+        return new ApiResponse(status, body);
+    }
+
+    /**
+     * Creates a response for the result of a use case, such as a sign-up. The result is sent back by name, with
+     * status 200 if it is the successful one and 409 otherwise.
+     *
+     * @param result Result of the use case
+     * @param success Result of the use case when it succeeds
+     * @return Response with the result
+     */
+    static ApiResponse result(Enum<?> result, Enum<?> success) {
+        return new ApiResponse(result == success ? 200 : 409, new JSONObject().put("result", result.name()));
+    }
+
+    /**
+     * Creates a response for a request that could not be served.
+     *
+     * @param status HTTP status of the response
+     * @param message Message explaining why the request could not be served
+     * @return Response with the message
+     */
+    static ApiResponse error(int status, String message) {
+        return new ApiResponse(status, new JSONObject().put("error", message));
+    }
+
+    /**
+     * Implements Getter, getStatus, for status.
+     *
+     * @return HTTP status of the response
+     */
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Implements Getter, getBody, for body.
+     *
+     * @return JSON text of the body
+     */
+    String getBody() {
+        return body.toString();
+    }
+}
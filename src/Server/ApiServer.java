@@ -0,0 +1,79 @@
+package Server;
+
+import UseCases.EventManager;
+import UseCases.MessageManager;
+import UseCases.RoomManager;
+import UseCases.UserManager;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+
+/**
+ * A headless HTTP/JSON API over the use case classes, served by the JDK's built-in HttpServer. The events, rooms,
+ * users and messages are served under /events, /rooms, /users and /messages, as described by their handlers.
+ *
+ * Every request is run on a thread of the executor, so it is served while others wait on the managers. The managers
+ * can be used by many threads at once, and they are shared with anything else using them, such as the autosave.
+ * The API has no authentication, so it should only be bound to a local address.
+ */
+public class ApiServer {
+    private final HttpServer server;
+
+    static {
+        // HttpServer writes the headers and the body of a response separately, so with Nagle's algorithm the body
+        // waits for the client's delayed acknowledgement of the headers, adding about 40 ms to every request. The
+        // property is read once, when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * The constructor binds the server to the address and sets up its handlers. It does not start the server.
+     *
+     * @param address Address to bind to; port 0 picks a free port
+     * @param executor Executor to run the requests on
+     * @param userManager UserManager to serve
+     * @param eventManager EventManager to serve
+     * @param roomManager RoomManager to serve
+     * @param messageManager MessageManager to serve
+     * @throws IOException Throws exception if the address cannot be bound
+     */
+    public ApiServer(InetSocketAddress address, Executor executor, UserManager userManager,
+                     EventManager eventManager, RoomManager roomManager, MessageManager messageManager)
+            throws IOException {
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/events", new EventsHandler(eventManager, userManager, roomManager));
+        server.createContext("/rooms", new RoomsHandler(roomManager));
+        server.createContext("/users", new UsersHandler(userManager));
+        server.createContext("/messages", new MessagesHandler(messageManager, userManager));
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops serving requests, waiting for the ones being served to finish.
+     *
+     * @param delay Maximum number of seconds to wait for the requests being served
+     */
+    public void stop(int delay) {
+        server.stop(delay);
+    }
+
+    /**
+     * Returns the address the server is bound to.
+     *
+     * @return Address of the server, with the port it picked if it was bound to port 0
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+}
@@ -0,0 +1,181 @@
+package Server;
+
+import Entities.UserType;
+import UseCases.EventManager;
+import UseCases.RoomManager;
+import UseCases.SchedulingManager;
+import UseCases.SchedulingResult;
+import UseCases.SignUpManager;
+import UseCases.SignUpResult;
+import UseCases.UserManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Handles the requests under /events:
+ *
+ * GET /events lists the events that have not started yet, and GET /events/{id} shows one of them.
+ * POST /events creates an event from {name, organizer, start, end, room, capacity, speakers}, with ISO times.
+ * PUT /events/{id}/room moves an event to {room}, and DELETE /events/{id} cancels it.
+ * GET /events/{id}/attendees lists the attendees, POST /events/{id}/attendees signs {username} up, and
+ * DELETE /events/{id}/attendees/{username} cancels their registration.
+ */
+class EventsHandler extends ApiHandler {
+    private final EventManager eventManager;
+    private final UserManager userManager;
+    private final SchedulingManager schedulingManager;
+    private final SignUpManager signUpManager;
+
+    /**
+     * The constructor takes the managers that the requests read and change.
+     *
+     * @param eventManager EventManager holding the events
+     * @param userManager UserManager holding the users
+     * @param roomManager RoomManager holding the rooms
+     */
+    EventsHandler(EventManager eventManager, UserManager userManager, RoomManager roomManager) {
+        this.eventManager = eventManager;
+        this.userManager = userManager;
+        this.schedulingManager = new SchedulingManager(eventManager, userManager, roomManager);
+        this.signUpManager = new SignUpManager(eventManager, userManager);
+    }
+
+    @Override
+    ApiResponse handle(ApiRequest request) {
+        String method = request.getMethod();
+        if (request.getPathSize() == 0) {
+            if (method.equals("GET")) {
+                return listEvents();
+            }
+            if (method.equals("POST")) {
+                return createEvent(request.getBody());
+            }
+            throw methodNotAllowed(request);
+        }
+
+        UUID eventID = parseEventID(request.getPathSegment(0));
+        if (request.getPathSize() == 1) {
+            if (method.equals("GET")) {
+                List<String> info = eventManager.getEventsInfo(eventID);
+                if (info == null) {
+                    throw notFound("Event " + eventID);
+                }
+                return ApiResponse.ok(toJSON(info));
+            }
+            if (method.equals("DELETE")) {
+                return ApiResponse.result(schedulingManager.cancelEvent(eventID), SchedulingResult.DONE);
+            }
+            throw methodNotAllowed(request);
+        }
+
+        String resource = request.getPathSegment(1);
+        if (resource.equals("room") && request.getPathSize() == 2) {
+            if (method.equals("PUT")) {
+                String roomName = request.getBody().getString("room");
+                return ApiResponse.result(schedulingManager.changeRoom(eventID, roomName), SchedulingResult.DONE);
+            }
+            throw methodNotAllowed(request);
+        }
+        if (resource.equals("attendees") && request.getPathSize() == 2) {
+            if (method.equals("GET")) {
+                return ApiResponse.ok(new JSONArray(eventManager.getEventAttendees(eventID)));
+            }
+            if (method.equals("POST")) {
+                String username = getRegisteredUser(request.getBody().getString("username"));
+                return ApiResponse.result(signUpManager.signUp(eventID, username), SignUpResult.SIGNED_UP);
+            }
+            throw methodNotAllowed(request);
+        }
+        if (resource.equals("attendees") && request.getPathSize() == 3) {
+            if (method.equals("DELETE")) {
+                return cancelRegistration(eventID, getRegisteredUser(request.getPathSegment(2)));
+            }
+            throw methodNotAllowed(request);
+        }
+        throw new ApiException(404, "No such resource");
+    }
+
+    // Helper method, lists the events that have not started yet, sorted by start time
+    private ApiResponse listEvents() {
+        JSONArray events = new JSONArray();
+        for (List<String> info : eventManager.getAllEventsInfo(eventManager.getAvailableEvents(LocalDateTime.now()))) {
+            events.put(toJSON(info));
+        }
+        return ApiResponse.ok(events);
+    }
+
+    // Helper method, creates an event from the fields of the body
+    private ApiResponse createEvent(JSONObject body) {
+        LocalDateTime startTime = LocalDateTime.parse(body.getString("start"));
+        LocalDateTime endTime = LocalDateTime.parse(body.getString("end"));
+        int capacity = body.getInt("capacity");
+        if (!startTime.isBefore(endTime)) {
+            throw new ApiException(400, "Start time is equal or after end time");
+        }
+        if (capacity < 0) {
+            throw new ApiException(400, "Event capacity must be a natural number");
+        }
+        List<String> speakers = new ArrayList<>();
+        JSONArray speakerArray = body.optJSONArray("speakers");
+        if (speakerArray != null) {
+            for (int i = 0; i < speakerArray.length(); i++) {
+                speakers.add(speakerArray.getString(i));
+            }
+        }
+        for (String speaker : speakers) {
+            if (userManager.isNotUserType(speaker, UserType.SPEAKER)) {
+                throw new ApiException(400, speaker + " is not a speaker");
+            }
+        }
+        SchedulingResult result = schedulingManager.createEvent(body.getString("name"), body.getString("organizer"),
+                startTime, endTime, body.getString("room"), capacity, speakers);
+        return ApiResponse.result(result, SchedulingResult.DONE);
+    }
+
+    // Helper method, cancels the registration of a user for an event, the same way as the attendee's event screen
+    private ApiResponse cancelRegistration(UUID eventID, String username) {
+        if (!eventManager.isAttending(eventID, username)) {
+            throw new ApiException(409, username + " is not attending this event");
+        }
+        eventManager.removeAttendee(username, eventID);
+        userManager.removeEventAttending(username, eventID);
+        return ApiResponse.ok(new JSONObject().put("result", "CANCELLED"));
+    }
+
+    // Helper method, parses the id of an existing event
+    private UUID parseEventID(String segment) {
+        UUID eventID = UUID.fromString(segment);
+        if (!eventManager.eventExists(eventID)) {
+            throw notFound("Event " + segment);
+        }
+        return eventID;
+    }
+
+    // Helper method, checks that the user is registered
+    private String getRegisteredUser(String username) {
+        if (!userManager.isRegistered(username)) {
+            throw notFound("User " + username);
+        }
+        return username;
+    }
+
+    // Helper method, converts the list from EventManager.getEventsInfo to a JSON object
+    private JSONObject toJSON(List<String> info) {
+        JSONObject event = new JSONObject();
+        event.put("id", info.get(0));
+        event.put("name", info.get(1));
+        event.put("start", info.get(2));
+        event.put("end", info.get(3));
+        event.put("speakers", info.get(4).isEmpty() ? new JSONArray() : new JSONArray(info.get(4).split(", ")));
+        event.put("organizer", info.get(5));
+        event.put("room", info.get(6));
+        event.put("capacity", Integer.parseInt(info.get(7)));
+        event.put("seatsLeft", Integer.parseInt(info.get(8)));
+        return event;
+    }
+}
@@ -0,0 +1,306 @@
+package Server;
+
+import UseCases.EventManager;
+import UseCases.MessageManager;
+import UseCases.RoomManager;
+import UseCases.UserManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates load on the API and reports the requests per second and the latency percentiles of every kind of request.
+ *
+ * Usage: LoadGenerator [threads] [seconds] [url]
+ *
+ * Each thread sends one request at a time for the given number of seconds, after a warm-up that is not counted.
+ * Without a url, an ApiServer with empty managers is started on a free local port and stopped afterwards, so nothing
+ * is saved. With a url, such as http://localhost:8080, the rooms, users and events the load needs are first added to
+ * that server under names of their own.
+ */
+public class LoadGenerator {
+    private static final int DEFAULT_THREADS = 16;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int WARM_UP_SECONDS = 2;
+    private static final int ROOMS = 10;
+    private static final int SPEAKERS = 10;
+    private static final int ATTENDEES = 1000;
+    private static final int EVENTS = 100;
+    private static final int EVENT_CAPACITY = 150;
+
+    // The kinds of requests, and how many of every 100 requests are of each kind
+    private static final String[] OPERATIONS = {"GET /events/{id}", "GET /events", "POST /events/{id}/attendees",
+            "DELETE /events/{id}/attendees/{username}", "POST /messages", "GET /messages/{username}/{other}",
+            "GET /users/{username}"};
+    private static final int[] WEIGHTS = {35, 10, 20, 5, 15, 10, 5};
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+    private final String url;
+    private final String prefix;
+    private final List<String> eventIDs = new ArrayList<>();
+
+    private LoadGenerator(String url) {
+        this.url = url;
+        this.prefix = "load" + Long.toString(System.currentTimeMillis() % 1000000, 36);
+    }
+
+    /**
+     * Main method to run the load generator.
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+
+        ApiServer server = null;
+        ExecutorService serverExecutor = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            serverExecutor = Executors.newCachedThreadPool();
+            server = new ApiServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), serverExecutor,
+                    new UserManager(), new EventManager(), new RoomManager(), new MessageManager());
+            server.start();
+            url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator(url);
+            generator.setUp();
+            System.out.println("Load: " + threads + " threads for " + seconds + " s, after a " + WARM_UP_SECONDS
+                    + " s warm-up, against " + url + (server == null ? "" : " (in-process server)"));
+            generator.run(threads, seconds);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+                serverExecutor.shutdown();
+            }
+        }
+    }
+
+    // Helper method, adds the rooms, users and events that the load uses
+    private void setUp() throws IOException, InterruptedException {
+        for (int i = 0; i < ROOMS; i++) {
+            expect(201, "POST", "/rooms", new JSONObject().put("name", prefix + "room" + i).put("capacity", 200));
+        }
+        register("ORGANIZER", prefix + "organizer");
+        for (int i = 0; i < SPEAKERS; i++) {
+            register("SPEAKER", prefix + "speaker" + i);
+        }
+        for (int i = 0; i < ATTENDEES; i++) {
+            register("ATTENDEE", prefix + "user" + i);
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < EVENTS; i++) {
+            LocalDateTime eventStart = start.plusHours(i / ROOMS);
+            JSONObject event = new JSONObject().put("name", prefix + " talk " + i)
+                    .put("organizer", prefix + "organizer").put("start", eventStart.toString())
+                    .put("end", eventStart.plusMinutes(50).toString()).put("room", prefix + "room" + i % ROOMS)
+                    .put("capacity", EVENT_CAPACITY)
+                    .put("speakers", new JSONArray().put(prefix + "speaker" + i % SPEAKERS));
+            expect(200, "POST", "/events", event);
+        }
+        JSONArray events = new JSONArray(send("GET", "/events", null).body());
+        for (int i = 0; i < events.length(); i++) {
+            JSONObject event = events.getJSONObject(i);
+            if (event.getString("organizer").equals(prefix + "organizer")) {
+                eventIDs.add(event.getString("id"));
+            }
+        }
+        if (eventIDs.size() != EVENTS) {
+            throw new IllegalStateException("Expected " + EVENTS + " events, found " + eventIDs.size());
+        }
+    }
+
+    // Helper method, registers a user
+    private void register(String type, String username) throws IOException, InterruptedException {
+        expect(201, "POST", "/users", new JSONObject().put("type", type).put("name", username)
+                .put("username", username).put("password", "password"));
+    }
+
+    // Helper method, sends the load from every thread and prints the report
+    private void run(int threads, int seconds) throws Exception {
+        long warmUpEnd = System.nanoTime() + WARM_UP_SECONDS * 1_000_000_000L;
+        long end = warmUpEnd + seconds * 1_000_000_000L;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<Recorder[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            futures.add(workers.submit(() -> sendLoad(new Random(seed), warmUpEnd, end)));
+        }
+        Recorder[] total = new Recorder[OPERATIONS.length];
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            total[op] = new Recorder();
+        }
+        for (Future<Recorder[]> future : futures) {
+            Recorder[] recorders = future.get();
+            for (int op = 0; op < OPERATIONS.length; op++) {
+                total[op].addAll(recorders[op]);
+            }
+        }
+        workers.shutdown();
+
+        Recorder all = new Recorder();
+        for (Recorder recorder : total) {
+            all.addAll(recorder);
+        }
+        System.out.printf("%-42s %9s %10s %8s %8s %8s %8s %8s %6s %6s%n", "request", "count", "req/s", "p50 ms",
+                "p90 ms", "p99 ms", "p99.9 ms", "max ms", "4xx", "errors");
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            total[op].print(OPERATIONS[op], seconds);
+        }
+        all.print("all", seconds);
+    }
+
+    // Helper method, sends requests from one thread until the end, recording the ones sent after the warm-up
+    private Recorder[] sendLoad(Random random, long warmUpEnd, long end) {
+        Recorder[] recorders = new Recorder[OPERATIONS.length];
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            recorders[op] = new Recorder();
+        }
+        long now = System.nanoTime();
+        while (now < end) {
+            int op = pickOperation(random);
+            int status;
+            try {
+                status = sendOperation(op, random);
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long done = System.nanoTime();
+            if (now >= warmUpEnd) {
+                recorders[op].record(done - now, status);
+            }
+            now = done;
+        }
+        return recorders;
+    }
+
+    // Helper method, picks the kind of the next request by the weights
+    private int pickOperation(Random random) {
+        int pick = random.nextInt(100);
+        for (int op = 0; op < WEIGHTS.length; op++) {
+            pick -= WEIGHTS[op];
+            if (pick < 0) {
+                return op;
+            }
+        }
+        return 0;
+    }
+
+    // Helper method, sends one request of the kind, returning its status
+    private int sendOperation(int op, Random random) throws IOException, InterruptedException {
+        String eventID = eventIDs.get(random.nextInt(eventIDs.size()));
+        String username = prefix + "user" + random.nextInt(ATTENDEES);
+        String other = prefix + "user" + random.nextInt(ATTENDEES);
+        switch (op) {
+            case 0:
+                return send("GET", "/events/" + eventID, null).statusCode();
+            case 1:
+                return send("GET", "/events", null).statusCode();
+            case 2:
+                return send("POST", "/events/" + eventID + "/attendees",
+                        new JSONObject().put("username", username)).statusCode();
+            case 3:
+                return send("DELETE", "/events/" + eventID + "/attendees/" + username, null).statusCode();
+            case 4:
+                return send("POST", "/messages", new JSONObject().put("sender", username).put("receiver", other)
+                        .put("content", "Hello from " + username)).statusCode();
+            case 5:
+                return send("GET", "/messages/" + username + "/" + other + "?count=20", null).statusCode();
+            default:
+                return send("GET", "/users/" + username, null).statusCode();
+        }
+    }
+
+    // Helper method, sends a request and checks that it gets the expected status
+    private void expect(int status, String method, String path, JSONObject body)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = send(method, path, body);
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(method + " " + path + " returned " + response.statusCode() + ": "
+                    + response.body());
+        }
+    }
+
+    // Helper method, sends a request with an optional JSON body
+    private HttpResponse<String> send(String method, String path, JSONObject body)
+            throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body.toString());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + path)).timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json").method(method, publisher).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // The latencies of the requests of one kind, along with the number that were turned away or failed
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int rejected;
+        private int errors;
+
+        // Records the latency and status of a request. Statuses 4xx, such as a full event, are expected under load,
+        // while 5xx and failures to connect, recorded as -1, are errors.
+        private void record(long latency, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (status >= 400 && status < 500) {
+                rejected++;
+            } else if (status < 200 || status >= 500) {
+                errors++;
+            }
+        }
+
+        private void addAll(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        private void print(String name, int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("%-42s %9d %10.1f %8.2f %8.2f %8.2f %8.2f %8.2f %6d %6d%n", name, count,
+                    (double) count / seconds, percentile(sorted, 0.5), percentile(sorted, 0.9),
+                    percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6, rejected, errors);
+        }
+
+        // Returns the latency in milliseconds that the fraction of the sorted latencies are at or below
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package Server;
+
+import UseCases.MessageManager;
+import UseCases.UserManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handles the requests under /messages:
+ *
+ * POST /messages sends {content} from {sender} to {receiver}.
+ * GET /messages/{username} lists the users that the user has messages with, latest first.
+ * GET /messages/{username}/{other} shows the latest messages between the two users. At most {count} messages are
+ * shown, 20 by default, and older ones are shown by passing the cursor of the oldest one already shown as {before}.
+ * POST /messages/announcements sends {content} from {sender} to every user in {recipients}.
+ */
+class MessagesHandler extends ApiHandler {
+    private static final String DEFAULT_COUNT = "20";
+
+    private final MessageManager messageManager;
+    private final UserManager userManager;
+
+    /**
+     * The constructor takes the managers that the requests read and change.
+     *
+     * @param messageManager MessageManager holding the messages
+     * @param userManager UserManager holding the users
+     */
+    MessagesHandler(MessageManager messageManager, UserManager userManager) {
+        this.messageManager = messageManager;
+        this.userManager = userManager;
+    }
+
+    @Override
+    ApiResponse handle(ApiRequest request) {
+        String method = request.getMethod();
+        if (request.getPathSize() == 0) {
+            if (method.equals("POST")) {
+                return sendMessage(request.getBody());
+            }
+            throw methodNotAllowed(request);
+        }
+        if (request.getPathSize() == 1 && request.getPathSegment(0).equals("announcements")) {
+            if (method.equals("POST")) {
+                return sendAnnouncement(request.getBody());
+            }
+            throw methodNotAllowed(request);
+        }
+
+        String username = getRegisteredUser(request.getPathSegment(0));
+        if (request.getPathSize() == 1) {
+            if (method.equals("GET")) {
+                return ApiResponse.ok(new JSONArray(messageManager.getInboxes(username)));
+            }
+            throw methodNotAllowed(request);
+        }
+        if (request.getPathSize() == 2) {
+            if (method.equals("GET")) {
+                return getMessages(request, username, getRegisteredUser(request.getPathSegment(1)));
+            }
+            throw methodNotAllowed(request);
+        }
+        throw new ApiException(404, "No such resource");
+    }
+
+    // Helper method, sends a direct message from the fields of the body
+    private ApiResponse sendMessage(JSONObject body) {
+        String sender = getRegisteredUser(body.getString("sender"));
+        String receiver = getRegisteredUser(body.getString("receiver"));
+        messageManager.sendMessage(sender, receiver, body.getString("content"));
+        return ApiResponse.of(201, new JSONObject().put("result", "SENT"));
+    }
+
+    // Helper method, sends an announcement from the fields of the body
+    private ApiResponse sendAnnouncement(JSONObject body) {
+        String sender = getRegisteredUser(body.getString("sender"));
+        JSONArray recipientArray = body.getJSONArray("recipients");
+        List<String> recipients = new ArrayList<>();
+        for (int i = 0; i < recipientArray.length(); i++) {
+            recipients.add(getRegisteredUser(recipientArray.getString(i)));
+        }
+        messageManager.messageAll(sender, recipients, body.getString("content"));
+        return ApiResponse.of(201, new JSONObject().put("result", "SENT").put("recipients", recipients.size()));
+    }
+
+    // Helper method, gets a page of the messages between two users, latest last
+    private ApiResponse getMessages(ApiRequest request, String username, String other) {
+        int count = Integer.parseInt(request.getQuery("count", DEFAULT_COUNT));
+        String before = request.getQuery("before", null);
+        int cursor = before == null ? messageManager.getInboxSize(username, other) : Integer.parseInt(before);
+        JSONArray messages = new JSONArray();
+        for (List<String> message : messageManager.getMessagesBeforeGUI(username, other, cursor, count)) {
+            messages.put(new JSONObject().put("sender", message.get(0)).put("time", message.get(1))
+                    .put("content", message.get(2)));
+        }
+        return ApiResponse.ok(new JSONObject().put("cursor", cursor - messages.length()).put("messages", messages));
+    }
+
+    // Helper method, checks that the user is registered
+    private String getRegisteredUser(String username) {
+        if (!userManager.isRegistered(username)) {
+            throw notFound("User " + username);
+        }
+        return username;
+    }
+}
@@ -0,0 +1,83 @@
+package Server;
+
+import UseCases.RoomManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Handles the requests under /rooms:
+ *
+ * GET /rooms lists the rooms, and GET /rooms/{name} shows one of them along with its schedule.
+ * POST /rooms adds a room from {name, capacity}.
+ */
+class RoomsHandler extends ApiHandler {
+    private final RoomManager roomManager;
+
+    /**
+     * The constructor takes the manager that the requests read and change.
+     *
+     * @param roomManager RoomManager holding the rooms
+     */
+    RoomsHandler(RoomManager roomManager) {
+        this.roomManager = roomManager;
+    }
+
+    @Override
+    ApiResponse handle(ApiRequest request) {
+        String method = request.getMethod();
+        if (request.getPathSize() == 0) {
+            if (method.equals("GET")) {
+                JSONArray rooms = new JSONArray();
+                for (String roomName : roomManager.getRooms()) {
+                    rooms.put(new JSONObject().put("name", roomName)
+                            .put("capacity", roomManager.getRoomCapacity(roomName)));
+                }
+                return ApiResponse.ok(rooms);
+            }
+            if (method.equals("POST")) {
+                return addRoom(request.getBody());
+            }
+            throw methodNotAllowed(request);
+        }
+        if (request.getPathSize() == 1) {
+            if (method.equals("GET")) {
+                return ApiResponse.ok(toJSON(request.getPathSegment(0)));
+            }
+            throw methodNotAllowed(request);
+        }
+        throw new ApiException(404, "No such resource");
+    }
+
+    // Helper method, adds a room from the fields of the body
+    private ApiResponse addRoom(JSONObject body) {
+        String roomName = body.getString("name");
+        int capacity = body.getInt("capacity");
+        if (capacity <= 0) {
+            throw new ApiException(400, "Room capacity must be a positive number");
+        }
+        if (roomManager.roomExists(roomName)) {
+            throw new ApiException(409, "Room " + roomName + " already exists");
+        }
+        roomManager.addRoom(roomName, capacity);
+        return ApiResponse.of(201, new JSONObject().put("name", roomName).put("capacity", capacity));
+    }
+
+    // Helper method, converts a room and its schedule to a JSON object
+    private JSONObject toJSON(String roomName) {
+        if (!roomManager.roomExists(roomName)) {
+            throw notFound("Room " + roomName);
+        }
+        JSONObject schedule = new JSONObject();
+        for (Map.Entry<UUID, List<LocalDateTime>> slot : roomManager.getRoomSchedule(roomName).entrySet()) {
+            schedule.put(slot.getKey().toString(), new JSONArray()
+                    .put(slot.getValue().get(0).toString()).put(slot.getValue().get(1).toString()));
+        }
+        return new JSONObject().put("name", roomName).put("capacity", roomManager.getRoomCapacity(roomName))
+                .put("schedule", schedule);
+    }
+}
@@ -0,0 +1,84 @@
+package Server;
+
+import Entities.UserType;
+import UseCases.UserManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.UUID;
+
+/**
+ * Handles the requests under /users:
+ *
+ * POST /users registers a user from {type, name, username, password}, and GET /users/{username} shows one, without
+ * their password.
+ * POST /users/{username}/friends adds {username} as a friend of the user.
+ */
+class UsersHandler extends ApiHandler {
+    private final UserManager userManager;
+
+    /**
+     * The constructor takes the manager that the requests read and change.
+     *
+     * @param userManager UserManager holding the users
+     */
+    UsersHandler(UserManager userManager) {
+        this.userManager = userManager;
+    }
+
+    @Override
+    ApiResponse handle(ApiRequest request) {
+        String method = request.getMethod();
+        if (request.getPathSize() == 0) {
+            if (method.equals("POST")) {
+                return registerUser(request.getBody());
+            }
+            throw methodNotAllowed(request);
+        }
+
+        String username = request.getPathSegment(0);
+        if (!userManager.isRegistered(username)) {
+            throw notFound("User " + username);
+        }
+        if (request.getPathSize() == 1) {
+            if (method.equals("GET")) {
+                return ApiResponse.ok(toJSON(username));
+            }
+            throw methodNotAllowed(request);
+        }
+        if (request.getPathSize() == 2 && request.getPathSegment(1).equals("friends")) {
+            if (method.equals("POST")) {
+                String friend = request.getBody().getString("username");
+                if (!userManager.isRegistered(friend)) {
+                    throw notFound("User " + friend);
+                }
+                userManager.addFriend(username, friend);
+                return ApiResponse.ok(new JSONArray(userManager.getFriends(username)));
+            }
+            throw methodNotAllowed(request);
+        }
+        throw new ApiException(404, "No such resource");
+    }
+
+    // Helper method, registers a user from the fields of the body
+    private ApiResponse registerUser(JSONObject body) {
+        UserType userType = UserType.valueOf(body.getString("type"));
+        String username = body.getString("username");
+        if (userManager.isRegistered(username)) {
+            throw new ApiException(409, "Username " + username + " is taken");
+        }
+        userManager.registerUser(userType, body.getString("name"), username, body.getString("password"));
+        return ApiResponse.of(201, toJSON(username));
+    }
+
+    // Helper method, converts a user to a JSON object, leaving out the password
+    private JSONObject toJSON(String username) {
+        JSONArray events = new JSONArray();
+        for (UUID eventID : userManager.getEventsAttending(username)) {
+            events.put(eventID.toString());
+        }
+        return new JSONObject().put("username", username).put("name", userManager.getName(username))
+                .put("type", userManager.getUserType(username).name()).put("events", events)
+                .put("friends", new JSONArray(userManager.getFriends(username)));
+    }
+}
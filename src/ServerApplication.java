@@ -0,0 +1,60 @@
+import GUI.DataHolders.ManagersStorage;
+import Server.ApiServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Main headless application, serving the managers over a local HTTP/JSON API instead of the GUI
+ */
+public class ServerApplication {
+    // Port to serve on, unless set with -Dserver.port=<port>
+    private static final int DEFAULT_PORT = 8080;
+    // Number of seconds between autosaves, unless set with -Dautosave.interval=<seconds>
+    private static final long DEFAULT_AUTOSAVE_INTERVAL = 60;
+    // Argument that writes the managers to the JSON files and exits instead of serving
+    private static final String EXPORT_JSON = "--export-json";
+
+    /**
+     * Main method to run the server. It serves on the loopback address only, and saves the managers in the background
+     * every autosave interval and when it is stopped. When started with --export-json, it writes the managers to the
+     * JSON files in src/Data instead, so that they can be read or edited outside of the program, and exits.
+     */
+    public static void main(String[] args) throws IOException {
+        ManagersStorage storage = ManagersStorage.getInstance();
+        if (Arrays.asList(args).contains(EXPORT_JSON)) {
+            storage.exportToJSON();
+            storage.close();
+            return;
+        }
+
+        // Every request is given a thread of its own. The JDK this project is built with has no virtual threads, so
+        // the threads come from a cached pool, which reuses idle threads and starts new ones while all are busy.
+        ExecutorService executor = Executors.newCachedThreadPool();
+        int port = Integer.getInteger("server.port", DEFAULT_PORT);
+        ApiServer server = new ApiServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), executor,
+                storage.getUserManager(), storage.getEventManager(), storage.getRoomManager(),
+                storage.getMessageManager());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            storage.close();
+        }));
+
+        server.start();
+        storage.startAutosave(Long.getLong("autosave.interval", DEFAULT_AUTOSAVE_INTERVAL));
+        System.out.println("Serving on http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort());
+    }
+}
@@ -3,14 +3,34 @@ package UseCases;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import Entities.Event;
+import Entities.Schedule;
 
 /**
  * This class is one of the use cases classes for this program, specifically for manipulating the Event entity class.
- * It stores a map of all event ids to its event object.
+ * It stores a map of all event ids to its event object, along with an index of event ids ordered by start time and
+ * the schedule of every user attending or speaking at an event. Events with the same start time are ordered by id, so
+ * that a (start time, id) pair marks a place in the index even once its event is removed.
+ *
+ * It can be used by many threads at once. Changes to an event hold the lock of its stripe, and reads of an event only
+ * wait when that event is being changed. The start time index is read without locking, and the schedule of a user,
+ * which is changed along with every event they are in, is locked on its own. Every event has a version, which
+ * counts the changes to its room, capacity and speakers, so that a change can be made only if the event was not
+ * changed since it was read.
  */
 public class EventManager {
-    private HashMap<UUID, Event> events;
+    private ConcurrentHashMap<UUID, Event> events;
+    private ConcurrentSkipListMap<LocalDateTime, NavigableSet<UUID>> eventsByStartTime;
+    private ConcurrentHashMap<String, Schedule> userSchedules;
+    private Journal journal = Journal.NONE;
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger savedVersion = new AtomicInteger();
+    private final StripedLock locks = new StripedLock();
 
     /**
      * The constructor takes events and assigns the variable an appropriate value.
@@ -18,7 +38,83 @@ public class EventManager {
      *
      */
     public EventManager(){
-        this.events = new HashMap<>();
+        this.events = new ConcurrentHashMap<>();
+        this.eventsByStartTime = new ConcurrentSkipListMap<>();
+        this.userSchedules = new ConcurrentHashMap<>();
+    }
+
+    /** Sets the journal that every change made through this manager is recorded in
+     *
+     * @param journal Journal to record the changes in
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /** Returns the version of this manager, which is the number of changes made through it
+     *
+     * @return Number of changes made through this manager
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /** Returns whether this manager was changed since it was last saved
+     *
+     * @return true if a change was made through this manager after the version passed to markSaved, and false
+     * otherwise
+     */
+    public boolean isModified() {
+        return version.get() != savedVersion.get();
+    }
+
+    /** Records that the changes made through this manager up to the version have been saved. Changes made after the
+     * version was taken, such as while a snapshot of it was being written, are still to be saved.
+     *
+     * @param version Version of this manager that has been saved
+     */
+    public void markSaved(int version) {
+        savedVersion.accumulateAndGet(version, Math::max);
+    }
+
+    // Helper method, counts the change in the version of this manager and records the change in the journal
+    private void recordChange(String operation, Object... args) {
+        version.incrementAndGet();
+        journal.record(operation, args);
+    }
+
+    /** Waits for the changes being made through this manager to finish and keeps new ones from starting, so that a
+     * consistent copy of it can be read, such as for a snapshot. Reads go on in the meantime.
+     *
+     * @return Stamps to be passed to allowChanges
+     */
+    public long[] blockChanges() {
+        return locks.blockChanges();
+    }
+
+    /** Lets changes be made through this manager again after blockChanges
+     *
+     * @param stamps Stamps returned by blockChanges
+     */
+    public void allowChanges(long[] stamps) {
+        locks.allowChanges(stamps);
+    }
+
+    /**
+     * Reads a particular event while it is not being changed, for use cases that need several of its values as they
+     * were at one time.
+     *
+     * @param id The id of the particular event.
+     * @param read Function reading the values from the event, which must not change it
+     * @param <T> Type of the values read
+     *
+     * @return The values read, or null if the event does not exist
+     */
+    <T> T readEvent(UUID id, Function<Event, T> read) {
+        return locks.read(id, () -> {
+            Event event = events.get(id);
+            return event == null ? null : read.apply(event);
+        });
     }
 
     /**
@@ -42,6 +138,17 @@ public class EventManager {
         return events.get(id).getEventName();
     }
 
+    /**
+     * Implements checker, eventExists, for eventID
+     *
+     * @param id The id of the particular event.
+     *
+     * @return a boolean indicating if the event exists
+     */
+    public boolean eventExists(UUID id) {
+        return events.containsKey(id);
+    }
+
     /**
      * Implements getter for event speaker name of a particular event.
      *
@@ -50,7 +157,7 @@ public class EventManager {
      * @return The list of speakers of the particular event
      */
     public List<String> getEventSpeaker(UUID id) {
-        return events.get(id).getSpeakers();
+        return locks.read(id, () -> events.get(id).getSpeakers());
     }
 
     /**
@@ -72,7 +179,7 @@ public class EventManager {
      * @return The room's name of the particular event
      */
     public String getEventRoomName(UUID id) {
-        return events.get(id).getRoomName();
+        return locks.read(id, () -> events.get(id).getRoomName());
     }
 
     /**
@@ -82,8 +189,31 @@ public class EventManager {
      * @param roomName new room
      */
     public void setEventRoomName(UUID id, String roomName) {
-        Event event = events.get(id);
-        event.setRoomName(roomName);
+        locks.write(id, () -> {
+            events.get(id).setRoomName(roomName);
+            recordChange("setEventRoomName", id, roomName);
+        });
+    }
+
+    /**
+     * Implements setter for event room name of a particular event, if the event is still at the expected version.
+     *
+     * @param id The id of the particular event.
+     * @param roomName new room
+     * @param expectedVersion version of the event that the new room was chosen at
+     *
+     * @return true if the room was set, and false if the event was changed or removed since the expected version
+     */
+    public boolean setEventRoomName(UUID id, String roomName, int expectedVersion) {
+        return locks.compute(id, () -> {
+            Event event = events.get(id);
+            if (event == null || event.getVersion() != expectedVersion) {
+                return false;
+            }
+            event.setRoomName(roomName);
+            recordChange("setEventRoomName", id, roomName);
+            return true;
+        });
     }
 
     /**
@@ -94,7 +224,7 @@ public class EventManager {
      * @return The maximum capacity of the particular event
      */
     public int getEventMaxCapacity(UUID id) {
-        return events.get(id).getMaxCapacity();
+        return locks.read(id, () -> events.get(id).getMaxCapacity());
     }
 
     /**
@@ -104,12 +234,73 @@ public class EventManager {
      */
     public List<UUID> getAvailableEvents(LocalDateTime currTime) {
         ArrayList<UUID> availableEvents = new ArrayList<>();
-        for (UUID id: events.keySet()){
-            if (currTime.isBefore(events.get(id).getStartTime())){
-                    availableEvents.add(id);
+        for (Set<UUID> ids : eventsByStartTime.tailMap(currTime, false).values()){
+            availableEvents.addAll(ids);
+        }
+        return availableEvents;
+    }
+
+    /**
+     * Implements Getter, getEventsBetween, for IDs of events starting within a time range.
+     *
+     * @param from earliest start time to include
+     * @param to start time at which to stop, exclusive
+     * @return event IDs for all events starting at or after from and before to, sorted by start time
+     */
+    public List<UUID> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        ArrayList<UUID> eventsBetween = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return eventsBetween;
+        }
+        for (Set<UUID> ids : eventsByStartTime.subMap(from, true, to, false).values()){
+            eventsBetween.addAll(ids);
+        }
+        return eventsBetween;
+    }
+
+    /**
+     * Implements Getter, getNextEvents, for the first page of events after a given time.
+     *
+     * @param currTime time after which events must start
+     * @param count maximum number of event IDs to return
+     * @return at most count event IDs of the earliest events starting after currTime, sorted by start time
+     */
+    public List<UUID> getNextEvents(LocalDateTime currTime, int count) {
+        List<UUID> page = new ArrayList<>();
+        collectEvents(eventsByStartTime.tailMap(currTime, false).values(), page, count);
+        return page;
+    }
+
+    /**
+     * Implements Getter, getNextEvents, for the page of events following a previously returned event. The event does
+     * not need to exist anymore, as the page starts from its start time and ID.
+     *
+     * @param lastStartTime start time of the last event on the previous page
+     * @param lastEventID ID of the last event on the previous page
+     * @param count maximum number of event IDs to return
+     * @return at most count event IDs of the events ordered after lastEventID, sorted by start time and then by ID
+     */
+    public List<UUID> getNextEvents(LocalDateTime lastStartTime, UUID lastEventID, int count) {
+        List<UUID> page = new ArrayList<>();
+        NavigableSet<UUID> sameTime = eventsByStartTime.get(lastStartTime);
+        if (sameTime != null) {
+            collectEvents(Collections.singleton(sameTime.tailSet(lastEventID, false)), page, count);
+        }
+        collectEvents(eventsByStartTime.tailMap(lastStartTime, false).values(), page, count);
+        return page;
+    }
+
+    // Helper method, walks the given time slots of the start time index in order and adds their event ids to the page
+    // until it holds count ids
+    private void collectEvents(Collection<? extends Set<UUID>> slots, List<UUID> page, int count) {
+        for (Set<UUID> ids : slots){
+            for (UUID id : ids){
+                if (page.size() >= count) {
+                    return;
                 }
+                page.add(id);
+            }
         }
-        return sortEventByTime(availableEvents);
     }
 
     /**
@@ -119,12 +310,15 @@ public class EventManager {
      */
     public List<UUID> getEmptyEvents(){
         ArrayList<UUID> emptyEvents = new ArrayList<>();
-        for (UUID id : events.keySet()){
-            if (events.get(id).getAttendees().size() == 0) {
-                emptyEvents.add(id);
+        for (Set<UUID> ids : eventsByStartTime.values()){
+            for (UUID id : ids){
+                Event event = events.get(id);
+                if (event != null && event.getNumAttendees() == 0) {
+                    emptyEvents.add(id);
+                }
             }
         }
-        return sortEventByTime(emptyEvents);
+        return emptyEvents;
     }
 
 
@@ -133,10 +327,21 @@ public class EventManager {
      *
      * @param eventID ID of the event to retrieve attendee list for
      *
-     * @return event attendee list, which should not include the speaker
+     * @return copy of the event attendee list, which should not include the speaker
      */
     public List<String> getEventAttendees(UUID eventID) {
-        return events.get(eventID).getAttendees();
+        return locks.read(eventID, () -> events.get(eventID).getAttendees());
+    }
+
+    /**
+     * Implements Getter, getNumAttendees, for an event in events.
+     *
+     * @param eventID ID of the event to retrieve the number of attendees for
+     *
+     * @return number of attendees of the event, which should not include the speaker
+     */
+    public int getNumAttendees(UUID eventID) {
+        return locks.read(eventID, () -> events.get(eventID).getNumAttendees());
     }
 
     /**
@@ -144,10 +349,11 @@ public class EventManager {
      *
      * @param eventID ID of the event to retrieve the start time for
      *
-     * @return event start time
+     * @return event start time, or null if there is no event with this ID
      */
     public LocalDateTime getEventStartTime(UUID eventID) {
-        return events.get(eventID).getStartTime();
+        Event event = events.get(eventID);
+        return event == null ? null : event.getStartTime();
     }
 
     /**
@@ -169,8 +375,10 @@ public class EventManager {
      * @return a boolean indicating if the event is full
      */
     public boolean isFull(UUID eventID) {
-        Event e = events.get(eventID);
-        return (e.getAttendees().size() >= e.getMaxCapacity());
+        return locks.read(eventID, () -> {
+            Event e = events.get(eventID);
+            return (e.getNumAttendees() >= e.getMaxCapacity());
+        });
     }
 
     /**
@@ -182,8 +390,7 @@ public class EventManager {
      * @return a boolean indicating if event's maximum capacity can be changed to newCapacity
      */
     public boolean canChangeCapacity(UUID eventID, int newCapacity) {
-        Event e = events.get(eventID);
-        return (e.getAttendees().size() <= newCapacity);
+        return locks.read(eventID, () -> events.get(eventID).getNumAttendees() <= newCapacity);
     }
 
     /**
@@ -192,7 +399,12 @@ public class EventManager {
      * @param eventID ID of event to change capacity for
      * @param newCap new maximum capacity of event
      */
-    public void setMaxCapacity(UUID eventID, int newCap){ events.get(eventID).setMaxCapacity(newCap); }
+    public void setMaxCapacity(UUID eventID, int newCap){
+        locks.write(eventID, () -> {
+            events.get(eventID).setMaxCapacity(newCap);
+            recordChange("setMaxCapacity", eventID, newCap);
+        });
+    }
 
 
     /**
@@ -210,8 +422,13 @@ public class EventManager {
     public UUID addEvent(String eventName, String organizer, LocalDateTime startTime, LocalDateTime endTime,
                          String roomName, int maxCapacity){
         Event newEvent = new Event(eventName, organizer, startTime, endTime, roomName, maxCapacity);
-        events.put(newEvent.getId(), newEvent);
-        return newEvent.getId();
+        UUID id = newEvent.getId();
+        locks.write(id, () -> {
+            events.put(id, newEvent);
+            indexEvent(newEvent);
+            recordChange("addEvent", eventName, organizer, startTime, endTime, roomName, maxCapacity, id);
+        });
+        return id;
     }
     /**
      * Implements modifier, addEvent, for events. (Only to be used for reading from files)
@@ -228,7 +445,42 @@ public class EventManager {
                          String roomName, int maxCapacity, UUID id){
         Event newEvent = new Event(eventName, organizer, startTime, endTime, roomName, maxCapacity);
         newEvent.setId(id);
-        events.put(newEvent.getId(), newEvent);
+        locks.write(id, () -> {
+            events.put(id, newEvent);
+            indexEvent(newEvent);
+            recordChange("addEvent", eventName, organizer, startTime, endTime, roomName, maxCapacity, id);
+        });
+    }
+
+    /**
+     * Implements modifier, addEvent, for events with a given id and their speakers, which are added along with the
+     * event so that it is never seen without them.
+     *
+     * @param eventName name of the event to be added
+     * @param organizer name of organizer of this new event
+     * @param startTime this event's start time; it can take on any time between 9-16
+     * @param roomName name of the room where this event is located in
+     * @param maxCapacity the maximum capacity of this event excluding the speaker; this should not exceed the maximum
+     *                     capacity of the room
+     * @param id id of the new event
+     * @param speakers list of usernames of the speakers
+     */
+    public void addEvent(String eventName, String organizer, LocalDateTime startTime, LocalDateTime endTime,
+                         String roomName, int maxCapacity, UUID id, List<String> speakers){
+        Event newEvent = new Event(eventName, organizer, startTime, endTime, roomName, maxCapacity);
+        newEvent.setId(id);
+        for (String speaker : speakers) {
+            newEvent.addSpeaker(speaker);
+        }
+        locks.write(id, () -> {
+            events.put(id, newEvent);
+            indexEvent(newEvent);
+            for (String speaker : speakers) {
+                addToUserSchedule(speaker, newEvent);
+            }
+            recordChange("addEvent", eventName, organizer, startTime, endTime, roomName, maxCapacity, id);
+            recordChange("addSpeakers", id, speakers);
+        });
     }
 
     /**
@@ -239,9 +491,14 @@ public class EventManager {
      * @param newSpeakers list of usernames of the new speakers
      */
     public void addSpeakers(UUID eventID, List<String> newSpeakers){
-        Event event = events.get(eventID);
-        List<String> speakers = event.getSpeakers();
-        speakers.addAll(newSpeakers);
+        locks.write(eventID, () -> {
+            Event event = events.get(eventID);
+            for (String speaker : newSpeakers) {
+                event.addSpeaker(speaker);
+                addToUserSchedule(speaker, event);
+            }
+            recordChange("addSpeakers", eventID, newSpeakers);
+        });
     }
 
     /**
@@ -252,10 +509,12 @@ public class EventManager {
      * @param oldSpeaker username of the old speaker
      */
     public void removeSpeaker(UUID eventID, String oldSpeaker){
-        Event event = events.get(eventID);
-        List<String> speakers = event.getSpeakers();
-        speakers.remove(oldSpeaker);
-        event.setSpeakers(speakers);
+        locks.write(eventID, () -> {
+            Event event = events.get(eventID);
+            event.removeSpeaker(oldSpeaker);
+            removeFromUserSchedule(oldSpeaker, event);
+            recordChange("removeSpeaker", eventID, oldSpeaker);
+        });
     }
 
 
@@ -265,49 +524,120 @@ public class EventManager {
      * @return a boolean indicating if event was successfully removed
      */
     public boolean removeEvent(UUID eventID){
-        if (events.containsKey(eventID)){
-            events.remove(eventID);
+        return locks.compute(eventID, () -> {
+            Event event = events.remove(eventID);
+            if (event == null) {
+                return false;
+            }
+            unscheduleEvent(event);
+            recordChange("removeEvent", eventID);
             return true;
+        });
+    }
+
+    /**
+     * Implements modifier, removeEvent, for events, if the event is still at the expected version. The attendees and
+     * speakers are taken as the event is removed, so that none who joined after the event was read are missed.
+     *
+     * @param eventID id of the event
+     * @param expectedVersion version of the event that it was read at
+     *
+     * @return usernames of the attendees and speakers of the removed event, or null if the event was changed or
+     * removed since the expected version
+     */
+    public List<String> removeEvent(UUID eventID, int expectedVersion){
+        return locks.compute(eventID, () -> {
+            Event event = events.get(eventID);
+            if (event == null || event.getVersion() != expectedVersion) {
+                return null;
+            }
+            events.remove(eventID);
+            unscheduleEvent(event);
+            recordChange("removeEvent", eventID);
+            List<String> users = event.getAttendees();
+            users.addAll(event.getSpeakers());
+            return users;
+        });
+    }
+
+    // Helper method, removes a removed event from the start time index and from the schedules of its attendees and
+    // speakers
+    private void unscheduleEvent(Event event) {
+        unindexEvent(event);
+        for (String username : event.getAttendees()) {
+            removeFromUserSchedule(username, event);
+        }
+        for (String speaker : event.getSpeakers()) {
+            removeFromUserSchedule(speaker, event);
+        }
+    }
+
+    // Helper method, adds the event's id to the start time index. Events of different stripes can share a time slot,
+    // so changes to the index are made one at a time, while reads of it never wait.
+    private void indexEvent(Event event) {
+        synchronized (eventsByStartTime) {
+            eventsByStartTime.computeIfAbsent(event.getStartTime(), k -> new ConcurrentSkipListSet<>())
+                    .add(event.getId());
+        }
+    }
+
+    // Helper method, removes the event's id from the start time index, dropping the time slot once it is empty
+    private void unindexEvent(Event event) {
+        synchronized (eventsByStartTime) {
+            Set<UUID> ids = eventsByStartTime.get(event.getStartTime());
+            if (ids != null) {
+                ids.remove(event.getId());
+                if (ids.isEmpty()) {
+                    eventsByStartTime.remove(event.getStartTime());
+                }
+            }
         }
-        return false;
     }
 
     /**
      * Implements getter for all information regarding an event
      *
      * @param eventID id of event
-     * @return List of strings with all information regarding the event
+     * @return List of strings with all information regarding the event, or null if the event does not exist
      */
     public List<String> getEventsInfo(UUID eventID){
-        List<String> infoList = new ArrayList<>();
-        Event event = events.get(eventID);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d MMM yyyy HH:mm");
-        String formattedST = event.getStartTime().format(formatter);
-        String formattedET = event.getEndTime().format(formatter);
-        infoList.add(eventID.toString());
-        infoList.add(getEventName(eventID));
-        infoList.add(formattedST);
-        infoList.add(formattedET);
-        infoList.add(event.convertSpeakerString());
-        infoList.add(getEventOrganizer(eventID));
-        infoList.add(event.getRoomName());
-        int capacity = getEventMaxCapacity(eventID);
-        infoList.add(Integer.toString(capacity));
-        infoList.add(Integer.toString(capacity - getEventAttendees(eventID).size()));
-        return infoList;
+        return locks.read(eventID, () -> {
+            Event event = events.get(eventID);
+            if (event == null) {
+                return null;
+            }
+            List<String> infoList = new ArrayList<>();
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d MMM yyyy HH:mm");
+            String formattedST = event.getStartTime().format(formatter);
+            String formattedET = event.getEndTime().format(formatter);
+            infoList.add(eventID.toString());
+            infoList.add(event.getEventName());
+            infoList.add(formattedST);
+            infoList.add(formattedET);
+            infoList.add(event.convertSpeakerString());
+            infoList.add(event.getOrganizer());
+            infoList.add(event.getRoomName());
+            int capacity = event.getMaxCapacity();
+            infoList.add(Integer.toString(capacity));
+            infoList.add(Integer.toString(capacity - event.getNumAttendees()));
+            return infoList;
+        });
     }
 
     /**
      * Implements getter for all information regarding of every event in a given list
      *
      * @param uuidList list of all eventIds
-     * @return List of strings with all information regarding the event for every event in list
+     * @return List of strings with all information regarding the event for every event in list that still exists
      */
     public List<List<String>> getAllEventsInfo(List<UUID> uuidList){
         uuidList = sortEventByTime(uuidList);
         List<List<String>> infoList = new ArrayList<>();
         for (UUID id :uuidList){
-            infoList.add(getEventsInfo(id));
+            List<String> info = getEventsInfo(id);
+            if (info != null) {
+                infoList.add(info);
+            }
         }
         return infoList;
     }
@@ -319,10 +649,75 @@ public class EventManager {
      * @param username name of attendee to be added
      */
     public void addAttendee(UUID eventID, String username){
+        locks.write(eventID, () -> {
+            Event event = events.get(eventID);
+            event.addAttendee(username);
+            addToUserSchedule(username, event);
+            recordChange("addAttendee", eventID, username);
+        });
+    }
+
+    /**
+     * Signs a user up for an event, as one step, so that sign-ups made at the same time can neither overbook the event
+     * nor give the user 2 events at the same time. A seat is reserved first, without locking the event, so that a full
+     * event turns sign-ups away without waiting for the ones in progress.
+     *
+     * @param eventID ID of event to sign the user up for
+     * @param username username of the user
+     * @return SIGNED_UP if the user was added as an attendee, and otherwise the reason they were not, checked in the
+     * order ALREADY_ATTENDING, CONFLICT, FULL and CLOSED
+     */
+    public SignUpResult signUp(UUID eventID, String username){
         Event event = events.get(eventID);
-        List<String> attendees = getEventAttendees(eventID);
-        attendees.add(username);
-        event.setAttendees(attendees);
+        if (event == null) {
+            return SignUpResult.CLOSED;
+        }
+        if (!event.reserveSeat()) {
+            return locks.read(eventID, () -> {
+                if (event.hasAttendee(username)) {
+                    return SignUpResult.ALREADY_ATTENDING;
+                }
+                return hasConflicts(username, event) ? SignUpResult.CONFLICT : SignUpResult.FULL;
+            });
+        }
+        SignUpResult result = locks.compute(eventID, () -> {
+            if (events.get(eventID) != event) {
+                return SignUpResult.CLOSED;
+            }
+            if (event.hasAttendee(username)) {
+                return SignUpResult.ALREADY_ATTENDING;
+            }
+            // The schedule of the user is held while it is checked and added to, since the user can be signing up for
+            // other events at the same time
+            Schedule schedule = userSchedules.computeIfAbsent(username, k -> new Schedule());
+            synchronized (schedule) {
+                if (hasConflicts(username, event)) {
+                    return SignUpResult.CONFLICT;
+                }
+                if (event.getStartTime().isBefore(LocalDateTime.now())) {
+                    return SignUpResult.CLOSED;
+                }
+                event.addReservedAttendee(username);
+                schedule.add(eventID, event.getStartTime(), event.getEndTime());
+                recordChange("addAttendee", eventID, username);
+                return SignUpResult.SIGNED_UP;
+            }
+        });
+        if (result != SignUpResult.SIGNED_UP) {
+            event.releaseSeat();
+        }
+        return result;
+    }
+
+    // Helper method, returns whether the user is attending or speaking at another event that overlaps with the event
+    private boolean hasConflicts(String username, Event event) {
+        Schedule schedule = userSchedules.get(username);
+        if (schedule == null) {
+            return false;
+        }
+        List<UUID> conflicts = schedule.getOverlapping(event.getStartTime(), event.getEndTime(), true);
+        conflicts.remove(event.getId());
+        return !conflicts.isEmpty();
     }
 
     /**
@@ -333,8 +728,7 @@ public class EventManager {
      * @return a boolean indicating if user is registered
      */
     public boolean isAttending(UUID eventID, String username){
-        Event event = events.get(eventID);
-        return(event.getAttendees().contains(username));
+        return locks.read(eventID, () -> events.get(eventID).hasAttendee(username));
     }
 
     /**
@@ -345,10 +739,60 @@ public class EventManager {
      *
      */
     public void removeAttendee(String username, UUID eventID){
+        locks.write(eventID, () -> {
+            Event event = events.get(eventID);
+            event.removeAttendee(username);
+            removeFromUserSchedule(username, event);
+            recordChange("removeAttendee", username, eventID);
+        });
+    }
+
+    /**
+     * Implements getter, getScheduleConflicts, for a user's schedule.
+     *
+     * @param username username of the user
+     * @param newST start time of the time block to check
+     * @param newET end time of the time block to check
+     * @return IDs of the events that the user is attending or speaking at which overlap with the time block, sorted
+     * by start time
+     */
+    public List<UUID> getScheduleConflicts(String username, LocalDateTime newST, LocalDateTime newET){
+        Schedule schedule = userSchedules.get(username);
+        if (schedule == null) {
+            return new ArrayList<>();
+        }
+        return schedule.getOverlapping(newST, newET, true);
+    }
+
+    /**
+     * Implements getter, getScheduleConflicts, for a user's schedule and an event.
+     *
+     * @param username username of the user
+     * @param eventID ID of the event to check
+     * @return IDs of the other events that the user is attending or speaking at which overlap with the event, sorted
+     * by start time
+     */
+    public List<UUID> getScheduleConflicts(String username, UUID eventID){
         Event event = events.get(eventID);
-        List<String> updated_event = event.getAttendees();
-        updated_event.remove(username);
-        event.setAttendees(updated_event);
+        List<UUID> conflicts = getScheduleConflicts(username, event.getStartTime(), event.getEndTime());
+        conflicts.remove(eventID);
+        return conflicts;
+    }
+
+    // Helper method, adds the event to the schedule of the user
+    private void addToUserSchedule(String username, Event event) {
+        userSchedules.computeIfAbsent(username, k -> new Schedule())
+                .add(event.getId(), event.getStartTime(), event.getEndTime());
+    }
+
+    // Helper method, removes the event from the schedule of the user once they are neither attending nor speaking at
+    // it
+    private void removeFromUserSchedule(String username, Event event) {
+        Schedule schedule = userSchedules.get(username);
+        boolean stillInvolved = event.hasAttendee(username) || event.hasSpeaker(username);
+        if (schedule != null && (!stillInvolved || !events.containsKey(event.getId()))) {
+            schedule.remove(event.getId());
+        }
     }
 
     /** Determines whether two time blocks (start time ~ end time) overlap.
@@ -374,7 +818,7 @@ public class EventManager {
      */
     public boolean scheduleOverlap(UUID eventID, List<UUID> schedule){
         LocalDateTime start1 = getEventStartTime(eventID);
-        LocalDateTime end1 = getEventStartTime(eventID);
+        LocalDateTime end1 = getEventEndTime(eventID);
         for(UUID otherEvent: schedule) {
             LocalDateTime start2 = getEventStartTime(otherEvent);
             LocalDateTime end2 = getEventEndTime(otherEvent);
@@ -385,28 +829,23 @@ public class EventManager {
         return false;
     }
 
-    /**Sorts all events from earliest startTime to latest startTime
+    /**Sorts all events from earliest startTime to latest startTime. Events with the same start time keep their
+     * relative order from the given list, and events that no longer exist are left out.
      *
      * @param eventIDList list of Event IDs to sort
      * @return sorted list of Event IDs by start time
      */
     private List<UUID> sortEventByTime(List<UUID> eventIDList) {
-        List<String> startTimeList = new ArrayList<>();
-        List<UUID> eventIDListSorted = new ArrayList<>();
+        Map<UUID, LocalDateTime> startTimes = new HashMap<>();
+        List<UUID> eventIDListSorted = new ArrayList<>(eventIDList.size());
         for (UUID id : eventIDList) {
-            String startTime = getEventStartTime(id).toString();
-            if (!startTimeList.contains(startTime)) {
-                startTimeList.add(startTime);
-            }
-        }
-        Collections.sort(startTimeList);
-        for (String time : startTimeList) {
-            for (UUID id : eventIDList) {
-                if (time.equals(getEventStartTime(id).toString())) {
-                    eventIDListSorted.add(id);
-                }
+            LocalDateTime startTime = getEventStartTime(id);
+            if (startTime != null) {
+                startTimes.put(id, startTime);
+                eventIDListSorted.add(id);
             }
         }
+        eventIDListSorted.sort(Comparator.comparing(startTimes::get));
         return eventIDListSorted;
     }
 }
@@ -0,0 +1,20 @@
+package UseCases;
+
+/**
+ * Records the changes made through a use case class, so that they can be made again on top of the last saved state
+ * when the program starts.
+ */
+public interface Journal {
+
+    /**
+     * Journal that records nothing, used by the use case classes until they are given a journal.
+     */
+    Journal NONE = (operation, args) -> { };
+
+    /** Records a change made through a use case class
+     *
+     * @param operation Name of the method that made the change
+     * @param args Arguments that the method can be called with again to make the same change
+     */
+    void record(String operation, Object... args);
+}
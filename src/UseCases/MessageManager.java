@@ -2,96 +2,430 @@ package UseCases;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import Entities.Announcement;
+import Entities.Conversation;
+import Entities.Inbox;
 import Entities.Message;
+import Entities.UsernameTable;
 
 public class MessageManager {
-    private HashMap<String, HashMap<String, List<Message>>> chats;
+    private static final UsernameTable USERNAMES = UsernameTable.getInstance();
+    private static final int PROGRESS_STEP = 500;
+
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, Conversation>> chats;
+    private List<Announcement> announcements;
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, List<Announcement>>> announcementsByReceiver;
+    private ConcurrentHashMap<String, Inbox> inboxes;
+    private final Set<List<String>> removedConversations = ConcurrentHashMap.newKeySet();
+    private Journal journal = Journal.NONE;
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger savedVersion = new AtomicInteger();
+    private final StripedLock locks = new StripedLock();
 
     /**
      * The constructor instantiates an empty HashMap.
-     * The HashMap's keys are the senders, and the values are HashMaps.
-     * The nested HashMaps' keys are the receivers of the sender, and the values are the messages.
+     * The HashMap's keys are the users, and the values are HashMaps.
+     * The nested HashMaps' keys are the other users of the user's chats, and the values are the conversations. Both
+     * users of a conversation map to the same conversation, so each message is only stored once.
+     * Announcements are kept apart from the chats, once each, and are merged into the chats of their receivers when
+     * those are read. Each receiver has the announcements of every sender to them indexed, sorted by time, so that
+     * reading a chat only goes through the announcements between its 2 users.
+     * Each user's inbox keeps their contacts ordered by the time of the last message with them, and is updated
+     * whenever a message or announcement is added.
+     * The manager can be used by many threads at once. Changes to a conversation hold the lock of the stripe of its
+     * 2 users, and reads of it only wait when it is being changed. Announcements are added under the lock of the
+     * stripe of their sender, and only the rare changes that remove messages from the inboxes lock every stripe.
+     * The users of every conversation removed since the last save are kept, so that its messages can be removed from
+     * the files it was saved in.
+     */
+    public MessageManager() {
+        this.chats = new ConcurrentHashMap<>();
+        this.announcements = Collections.synchronizedList(new ArrayList<>());
+        this.announcementsByReceiver = new ConcurrentHashMap<>();
+        this.inboxes = new ConcurrentHashMap<>();
+    }
+
+    /** Sets the journal that every change made through this manager is recorded in
+     *
+     * @param journal Journal to record the changes in
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /** Returns the version of this manager, which is the number of changes made through it
+     *
+     * @return Number of changes made through this manager
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /** Returns whether this manager was changed since it was last saved
+     *
+     * @return true if a change was made through this manager after the version passed to markSaved, and false
+     * otherwise
+     */
+    public boolean isModified() {
+        return version.get() != savedVersion.get();
+    }
+
+    /** Records that the changes made through this manager up to the version have been saved. Changes made after the
+     * version was taken, such as while a snapshot of it was being written, are still to be saved.
+     *
+     * @param version Version of this manager that has been saved
+     */
+    public void markSaved(int version) {
+        savedVersion.accumulateAndGet(version, Math::max);
+    }
+
+    // Helper method, counts the change in the version of this manager and records the change in the journal
+    private void recordChange(String operation, Object... args) {
+        version.incrementAndGet();
+        journal.record(operation, args);
+    }
+
+    /** Waits for the changes being made through this manager to finish and keeps new ones from starting, so that a
+     * consistent copy of it can be read, such as for a snapshot. Reads go on in the meantime.
+     *
+     * @return Stamps to be passed to allowChanges
      */
-    public MessageManager() { this.chats = new HashMap<>(); }
+    public long[] blockChanges() {
+        return locks.blockChanges();
+    }
+
+    /** Lets changes be made through this manager again after blockChanges
+     *
+     * @param stamps Stamps returned by blockChanges
+     */
+    public void allowChanges(long[] stamps) {
+        locks.allowChanges(stamps);
+    }
 
     /** Sends a Message from sender to receiver with the content, at the current time
      *
      * @param sender Sender of Message
      * @param receiver Receiver of Message
      * @param content Content of Message
+     * @return The Message that was sent
      */
-    public void sendMessage(String sender, String receiver, String content) {
-        Message message = new Message(sender, receiver, content);
-        if (sender.equals(receiver)) {
-            addMessage(sender, receiver, message);
-        } else {
-            addMessage(sender, receiver, message);
-            addMessage(receiver, sender, message);
-        }
+    public Message sendMessage(String sender, String receiver, String content) {
+        return locks.compute(chatKey(sender, receiver), () -> {
+            // Made under the lock, so that the messages of a conversation are appended in order of time
+            Message message = new Message(sender, receiver, content);
+            addMessage(message).markRead(sender);
+            recordChange("sendMessage", sender, receiver, content, message.getTime());
+            return message;
+        });
+    }
+
+    /** Sends a Message from sender to receiver with the content, at the current time, and returns it in String format
+     *
+     * @param sender Sender of Message
+     * @param receiver Receiver of Message
+     * @param content Content of Message
+     * @return Sender, time and content of the Message that was sent, as in getLatestMessagesGUI
+     */
+    public List<String> sendMessageGUI(String sender, String receiver, String content) {
+        return toStringGUI(Collections.singletonList(sendMessage(sender, receiver, content))).get(0);
+    }
+
+    /** Adds a Message from sender to receiver with the content, at the set time, to the chat between them
+     *
+     * @param sender Sender of Message
+     * @param receiver Receiver of Message
+     * @param content Content of Message
+     * @param time Time of Message
+     */
+    public void addToChat(String sender, String receiver, String content, LocalDateTime time) {
+        Message message = new Message(sender, receiver, content, time);
+        locks.write(chatKey(sender, receiver), () -> {
+            addMessage(message);
+            recordChange("addToChat", sender, receiver, content, time);
+        });
+    }
+
+    // Helper method, returns the key of the stripe of the chat between the 2 users, which is the same in either order
+    private static Object chatKey(String firstUser, String secondUser) {
+        return firstUser.hashCode() + secondUser.hashCode();
     }
 
-    // Helper method, adds the message to the HashMap chats
-    private void addMessage(String sender, String receiver, Message message) {
+    // Helper method, appends the message to the conversation between its sender and receiver, and makes sure the
+    // conversation is in both of their chats
+    private Conversation addMessage(Message message) {
+        String sender = message.getSender();
+        String receiver = message.getReceiver();
+        Conversation conversation = getConversation(sender, receiver);
+        if (conversation == null) {
+            conversation = new Conversation(sender, receiver);
+        }
+        conversation.addMessage(message);
         addSenderChat(sender);
-        addReceiverChat(sender, receiver);
-        chats.get(sender).get(receiver).add(message);
+        addSenderChat(receiver);
+        chats.get(sender).put(receiver, conversation);
+        chats.get(receiver).put(sender, conversation);
+        updateInbox(sender, receiver, message.getTime(), true);
+        updateInbox(receiver, sender, message.getTime(), true);
+        return conversation;
+    }
+
+    // Helper method, records activity at the time in the user's inbox with the contact. If the contact is not in the
+    // inbox yet, they are only added when canAdd is true, and then the time of the last message between them is looked
+    // up, since messages read from files may not come in order of time. The inbox only ever moves a contact to a later
+    // time here, so updates of it made at the same time from different stripes are never lost.
+    private void updateInbox(String user, String contact, LocalDateTime time, boolean canAdd) {
+        Inbox inbox = inboxes.computeIfAbsent(user, k -> new Inbox());
+        if (inbox.contains(contact)) {
+            inbox.update(contact, time);
+        } else if (canAdd) {
+            LocalDateTime lastActivity = findLastActivity(user, contact);
+            if (lastActivity != null) {
+                inbox.update(contact, lastActivity);
+            }
+        }
+    }
+
+    // Helper method, recomputes whether the contact is in the user's inbox, and the time of the last message between
+    // them. Used when messages are removed from the inbox, which does not happen on every send.
+    private void refreshInbox(String user, String contact) {
+        Inbox inbox = inboxes.computeIfAbsent(user, k -> new Inbox());
+        inbox.remove(contact);
+        LocalDateTime lastActivity = findLastActivity(user, contact);
+        if (lastActivity != null) {
+            inbox.update(contact, lastActivity);
+        }
+    }
+
+    // Helper method, finds the time of the last message between the user and the contact, or null if the contact is
+    // not in the user's inbox. Only the time of the latest message of the conversation is needed, so its messages are
+    // not loaded.
+    private LocalDateTime findLastActivity(String user, String contact) {
+        Conversation conversation = chats.containsKey(user) ? chats.get(user).get(contact) : null;
+        boolean isContact = conversation != null;
+        LocalDateTime lastActivity = null;
+        if (conversation != null && !conversation.isDeleted(user)) {
+            lastActivity = conversation.getLastTime();
+        }
+        int contactId = USERNAMES.findId(contact);
+        for (Announcement announcement : getAnnouncementsBetween(user, contact)) {
+            isContact = isContact || announcement.getSenderId() == contactId;
+            if (lastActivity == null || announcement.getTime().isAfter(lastActivity)) {
+                lastActivity = announcement.getTime();
+            }
+        }
+        return isContact ? lastActivity : null;
+    }
+
+    // Helper method, finds the conversation between the 2 users in either of their chats, since a user who deleted the
+    // conversation no longer has it in their chats
+    private Conversation getConversation(String firstUser, String secondUser) {
+        if (chats.containsKey(firstUser) && chats.get(firstUser).containsKey(secondUser)) {
+            return chats.get(firstUser).get(secondUser);
+        }
+        if (chats.containsKey(secondUser) && chats.get(secondUser).containsKey(firstUser)) {
+            return chats.get(secondUser).get(firstUser);
+        }
+        return null;
     }
 
-    // Helper method, adds a sender key to the HashMap chats if it's not already a key, and map that key to an empty
-    // HashMap
+    // Helper method, adds a sender key to the map chats if it's not already a key, and map that key to an empty map
     private void addSenderChat(String sender) {
-        if (!chats.containsKey(sender)) {
-            HashMap<String, List<Message>> receivers = new HashMap<>();
-            chats.put(sender, receivers);
+        chats.computeIfAbsent(sender, k -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Returns every conversation, once each, including the messages that either of its users deleted.
+     *
+     * @return List of Conversations
+     */
+    public List<Conversation> getConversations() {
+        Set<Conversation> conversations = new LinkedHashSet<>();
+        for (Map<String, Conversation> userChats : chats.values()) {
+            conversations.addAll(userChats.values());
         }
+        return new ArrayList<>(conversations);
     }
 
-    // Helper method, adds a receiver key to the nested HashMap inside chats if it's not already a key, and map that
-    // key to an empty list of Messages
-    private void addReceiverChat(String sender, String receiver){
-        if (!chats.get(sender).containsKey(receiver)) {
-            List<Message> chat = new ArrayList<>();
-            chats.get(sender).put(receiver, chat);
+    /**
+     * Returns the users of every conversation removed since the removals were last marked as saved.
+     *
+     * @return List of the users of the removed Conversations
+     */
+    public List<List<String>> getRemovedConversations() {
+        return new ArrayList<>(removedConversations);
+    }
+
+    /** Records that the removals of the conversations have been saved
+     *
+     * @param removed Users of the removed Conversations, as returned by getRemovedConversations
+     */
+    public void markRemovalsSaved(Collection<List<String>> removed) {
+        for (List<String> users : removed) {
+            removedConversations.remove(users);
         }
     }
 
-    /** Adds a Message from sender to receiver with the content, at the set time, and only records in sender's chat
+    /** Adds a conversation read from a file along with the cursors of its users, whose messages may not be loaded yet
+     * (Only to be used for reading from files)
      *
-     * @param sender Sender of Message
-     * @param receiver Receiver of Message
-     * @param content Content of Message
-     * @param time Time of Message
+     * @param conversation Conversation to be added
      */
-    public void addToSenderChat(String sender, String receiver, String content, LocalDateTime time) {
-        Message message = new Message(sender, receiver, content, time);
-        addMessage(sender, receiver, message);
+    public void addConversation(Conversation conversation) {
+        List<String> users = conversation.getUsers();
+        locks.write(chatKey(users.get(0), users.get(users.size() - 1)), () -> {
+            for (int i = 0; i < users.size(); i++) {
+                String user = users.get(i);
+                String collocutor = users.get(users.size() - 1 - i);
+                addSenderChat(user);
+                if (!conversation.isDeleted(user)) {
+                    chats.get(user).put(collocutor, conversation);
+                }
+            }
+            for (int i = 0; i < users.size(); i++) {
+                refreshInbox(users.get(i), users.get(users.size() - 1 - i));
+            }
+        });
     }
 
-    /** Adds a Message from sender to receiver with the content, at the set time, and only records in receiver's chat
+    /** Restores the cursors of a user in the chat between 2 users (Only to be used for reading from files)
+     *
+     * @param user User whose cursors are restored
+     * @param collocutor Other user of the chat
+     * @param deleteCursor Number of messages at the start of the chat that user deleted
+     * @param readCursor Number of messages at the start of the chat that user read
+     */
+    public void setChatCursors(String user, String collocutor, int deleteCursor, int readCursor) {
+        locks.write(chatKey(user, collocutor), () -> {
+            Conversation conversation = getConversation(user, collocutor);
+            if (conversation == null) {
+                return;
+            }
+            conversation.setDeleteCursor(user, deleteCursor);
+            conversation.setReadCursor(user, readCursor);
+            addSenderChat(user);
+            if (conversation.isDeleted(user)) {
+                chats.get(user).remove(collocutor);
+            } else {
+                chats.get(user).put(collocutor, conversation);
+            }
+            refreshInbox(user, collocutor);
+            recordChange("setChatCursors", user, collocutor, deleteCursor, readCursor);
+        });
+    }
+
+    /** Marks every message in the chat between 2 users as read by the first user
+     *
+     * @param user User who read the chat
+     * @param collocutor Other user of the chat
+     */
+    public void markRead(String user, String collocutor) {
+        locks.write(chatKey(user, collocutor), () -> {
+            Conversation conversation = getConversation(user, collocutor);
+            if (conversation != null && conversation.getReadCursor(user) < conversation.size()) {
+                conversation.markRead(user);
+                recordChange("markRead", user, collocutor);
+            }
+        });
+    }
+
+    /** Returns the number of direct messages in the chat between 2 users that the first user has not read
+     *
+     * @param user User who reads the chat
+     * @param collocutor Other user of the chat
+     * @return Number of unread messages
+     */
+    public int getNumUnread(String user, String collocutor) {
+        return locks.read(chatKey(user, collocutor), () -> {
+            Conversation conversation = getConversation(user, collocutor);
+            return conversation == null ? 0 : conversation.getNumUnread(user);
+        });
+    }
+
+    /** Sends a message from the User to everyone in the userList. The message is stored once as an announcement,
+     * and shows up in the chat between the sender and each receiver.
      *
      * @param sender Sender of Message
-     * @param receiver Receiver of Message
+     * @param userList List of Receivers
      * @param content Content of Message
-     * @param time Time of Message
      */
-    public void addToReceiverChat(String sender, String receiver, String content, LocalDateTime time) {
-        Message message = new Message(sender, receiver, content, time);
-        addMessage(receiver, sender, message);
+    public void messageAll(String sender, Collection<String> userList, String content) {
+        addAnnouncement(sender, userList, content, LocalDateTime.now());
     }
 
-    /** Sends a message from the User to everyone in the userList
+    /** Sends a message from the User to everyone in the userList, reporting how many receivers it has reached as it
+     * goes, which is worth showing for announcements to thousands of users.
      *
      * @param sender Sender of Message
      * @param userList List of Receivers
      * @param content Content of Message
+     * @param progress Called with the number of receivers reached so far, every PROGRESS_STEP receivers and once all
+     *                 are reached. It is called while the sender's chats are locked, so it should return quickly and not
+     *                 use this MessageManager.
+     */
+    public void messageAll(String sender, Collection<String> userList, String content, IntConsumer progress) {
+        addAnnouncement(sender, userList, content, LocalDateTime.now(), progress);
+    }
+
+    /** Adds an announcement from sender to everyone in the userList, at the set time
+     *
+     * @param sender Sender of Announcement
+     * @param userList Receivers of Announcement
+     * @param content Content of Announcement
+     * @param time Time of Announcement
      */
-    public void messageAll(String sender, List<String> userList, String content) {
-        for (String user : userList) {
-            sendMessage(sender, user, content);
+    public void addAnnouncement(String sender, Collection<String> userList, String content, LocalDateTime time) {
+        addAnnouncement(sender, userList, content, time, reached -> {});
+    }
+
+    // Helper method, adds the announcement, reporting the number of receivers reached to progress
+    private void addAnnouncement(String sender, Collection<String> userList, String content, LocalDateTime time,
+                                 IntConsumer progress) {
+        if (userList.isEmpty()) {
+            progress.accept(0);
+            return;
+        }
+        Announcement announcement = new Announcement(sender, userList, content, time);
+        locks.write(sender, () -> {
+            announcements.add(announcement);
+            List<String> recipients = announcement.getRecipients();
+            int reached = 0;
+            for (String receiver : recipients) {
+                insertByTime(announcementsByReceiver.computeIfAbsent(receiver, k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(sender, k -> new CopyOnWriteArrayList<>()), announcement);
+                updateInbox(receiver, sender, time, true);
+                updateInbox(sender, receiver, time, false);
+                if (++reached % PROGRESS_STEP == 0 && reached < recipients.size()) {
+                    progress.accept(reached);
+                }
+            }
+            recordChange("addAnnouncement", sender, userList, content, time);
+            progress.accept(reached);
+        });
+    }
+
+    // Helper method, inserts the announcement into the list, which is sorted by time, after every announcement sent at
+    // or before its time
+    private static void insertByTime(List<Announcement> announcements, Announcement announcement) {
+        int position = announcements.size();
+        while (position > 0 && announcements.get(position - 1).getTime().isAfter(announcement.getTime())) {
+            position--;
+        }
+        announcements.add(position, announcement);
+    }
+
+    /**
+     * Returns all announcements, in the order they were sent.
+     *
+     * @return Copy of the list of Announcements
+     */
+    public List<Announcement> getAnnouncements() {
+        synchronized (announcements) {
+            return new ArrayList<>(announcements);
         }
     }
 
@@ -107,57 +441,80 @@ public class MessageManager {
     /** Implements Getter for getting the inboxes of a user
      * If the user hasn't messaged anyone, add the sender key to the HashMap first.
      * @param user Username of the user requesting to view their inboxes
-     * @return List of usernames - the people that user has been messaging
+     * @return List of usernames - the people that user has been messaging, or has received announcements from, sorted
+     * by the time of the latest message with them
      */
     public List<String> getInboxes(String user) {
         addSenderChat(user);
-        return sortInbox(user, new ArrayList<>(chats.get(user).keySet()));
-    }
-
-    /** Helper to sort inboxes by latest message time
-     * @param user User of which we want to sort inbox
-     * @param inboxList Inboxes of user
-     * @return sorted inbox list of User
-     */
-    private List<String> sortInbox(String user, List<String> inboxList) {
-        List<Message> lastMessageList = new ArrayList<>();
-        List<Message> lastMessageListSorted = new ArrayList<>();
-        List<String> lastMessageTimeList = new ArrayList<>();
-        List<String> inboxListSorted = new ArrayList<>();
-        for (String contact : inboxList) {
-            int chatSize = chats.get(user).get(contact).size();
-            Message lastMessage = chats.get(user).get(contact).get(chatSize - 1);
-            lastMessageList.add(lastMessage);
-            if (!lastMessageTimeList.contains(lastMessage.getTime().toString())) {
-                lastMessageTimeList.add(lastMessage.getTime().toString());
-            }
-        }
-        Collections.sort(lastMessageTimeList);
-        for (String time : lastMessageTimeList) {
-            for (Message message : lastMessageList) {
-                if (time.equals(message.getTime().toString())) {
-                    lastMessageListSorted.add(message);
-                }
-            }
+        return inboxes.computeIfAbsent(user, k -> new Inbox()).getContacts();
+    }
+
+    /** Implements Getter for getting the users that a user has exchanged direct messages with, not counting
+     * announcements
+     * @param user Username of the user
+     * @return List of usernames
+     */
+    public List<String> getChatPartners(String user) {
+        if (!chats.containsKey(user)) {
+            return new ArrayList<>();
         }
-        for (Message message : lastMessageListSorted) {
-            for (String contact : inboxList) {
-                if (chats.get(user).get(contact).contains(message)) {
-                    inboxListSorted.add(contact);
-                }
+        return new ArrayList<>(chats.get(user).keySet());
+    }
+
+    /** Implements Getter for getting the inbox between 2 users, including the announcements either of them sent to the
+     * other
+     *
+     * @param firstUser One user of the inbox
+     * @param secondUser Other user of the inbox
+     * @return List of Messages between the 2 users, sorted by time
+     */
+    public List<Message> getInbox(String firstUser, String secondUser) {
+        List<Message> inbox = locks.read(chatKey(firstUser, secondUser), () -> {
+            List<Message> messages = new ArrayList<>(directMessages(firstUser, secondUser));
+            addAnnouncementsToInbox(messages, secondUser, firstUser);
+            if (!firstUser.equals(secondUser)) {
+                addAnnouncementsToInbox(messages, firstUser, secondUser);
             }
+            return messages;
+        });
+        inbox.sort(Comparator.comparing(Message::getTime));
+        return inbox;
+    }
+
+    // Helper method, adds the announcements from sender that receiver receives to the inbox
+    private void addAnnouncementsToInbox(List<Message> inbox, String sender, String receiver) {
+        for (Announcement announcement : announcementsTo(receiver, sender)) {
+            inbox.add(announcement.toMessage(receiver));
         }
-        return inboxListSorted;
     }
 
-    /** Implements Getter for getting the inbox between 2 users
+    // Helper method, returns the announcements from sender that receiver receives, sorted by time. The list can be
+    // iterated at any time, as it is copied on every change.
+    private List<Announcement> announcementsTo(String receiver, String sender) {
+        Map<String, List<Announcement>> received = announcementsByReceiver.get(receiver);
+        List<Announcement> announcements = received == null ? null : received.get(sender);
+        return announcements == null ? Collections.emptyList() : announcements;
+    }
+
+    /** Implements Getter for getting the direct messages between 2 users, not counting announcements
      *
      * @param firstUser One user of the inbox
      * @param secondUser Other user of the inbox
-     * @return List of Messages between the 2 users
+     * @return Copy of the list of Messages that were sent directly between the 2 users
      */
-    public List<Message> getInbox(String firstUser, String secondUser) {
-        return chats.get(firstUser).get(secondUser);
+    public List<Message> getDirectMessages(String firstUser, String secondUser) {
+        return locks.read(chatKey(firstUser, secondUser), () -> new ArrayList<>(directMessages(firstUser, secondUser)));
+    }
+
+    // Helper method, returns a read-only view of the direct messages between the 2 users, which can only be used under
+    // the lock of the stripe of their chat
+    private List<Message> directMessages(String firstUser, String secondUser) {
+        Map<String, Conversation> userChats = chats.get(firstUser);
+        Conversation conversation = userChats == null ? null : userChats.get(secondUser);
+        if (conversation == null) {
+            return Collections.emptyList();
+        }
+        return conversation.getMessages(firstUser);
     }
 
     /** Implements Getter for getting the inbox between 2 users, but in String format
@@ -167,9 +524,132 @@ public class MessageManager {
      * @return List of Messages' Contents between the 2 users
      */
     public List<List<String>> getInboxStringGUI(String firstUser, String secondUser){
-        List<Message> messages = chats.get(firstUser).get(secondUser);
+        return toStringGUI(getInbox(firstUser, secondUser));
+    }
+
+    /** Returns the number of messages in the inbox between 2 users, which is the cursor right after the latest one
+     *
+     * @param firstUser One user of the inbox
+     * @param secondUser Other user of the inbox
+     * @return Number of Messages between the 2 users, including announcements
+     */
+    public int getInboxSize(String firstUser, String secondUser) {
+        return locks.read(chatKey(firstUser, secondUser), () -> directMessages(firstUser, secondUser).size()
+                + getAnnouncementsBetween(firstUser, secondUser).size());
+    }
+
+    /** Implements Getter for getting the latest messages of the inbox between 2 users, in String format
+     *
+     * @param firstUser One user of the inbox
+     * @param secondUser Other user of the inbox
+     * @param count Maximum number of messages
+     * @return List of the Contents of the latest count Messages between the 2 users, sorted by time
+     */
+    public List<List<String>> getLatestMessagesGUI(String firstUser, String secondUser, int count) {
+        return getMessagesBeforeGUI(firstUser, secondUser, getInboxSize(firstUser, secondUser), count);
+    }
+
+    /** Implements Getter for getting the messages of the inbox between 2 users that come before a cursor, in String
+     * format. The cursor is the position of a message in the inbox, counting from the oldest message, so the cursor
+     * of a message stays the same when newer messages are sent.
+     *
+     * @param firstUser One user of the inbox
+     * @param secondUser Other user of the inbox
+     * @param cursor Position in the inbox of the oldest message already read
+     * @param count Maximum number of messages
+     * @return List of the Contents of at most count Messages right before the cursor, sorted by time
+     */
+    public List<List<String>> getMessagesBeforeGUI(String firstUser, String secondUser, int cursor, int count) {
+        List<Message> page = locks.read(chatKey(firstUser, secondUser),
+                () -> getMessagesBefore(firstUser, secondUser, cursor, count));
+        return toStringGUI(page);
+    }
+
+    // Helper method, gets at most count messages of the inbox right before the cursor. The announcements are placed
+    // among the direct messages by time, the same way as getInbox does, so only the page itself has to be merged.
+    private List<Message> getMessagesBefore(String firstUser, String secondUser, int cursor, int count) {
+        List<Message> directMessages = directMessages(firstUser, secondUser);
+        List<Announcement> announcementsBetween = getAnnouncementsBetween(firstUser, secondUser);
+        int firstUserId = USERNAMES.findId(firstUser);
+
+        // Number of announcements before the cursor, knowing that announcement j has j announcements and every direct
+        // message sent at or before its time in front of it
+        int announcementIndex = 0;
+        while (announcementIndex < announcementsBetween.size() && announcementIndex
+                + countSentBy(directMessages, announcementsBetween.get(announcementIndex).getTime()) < cursor) {
+            announcementIndex++;
+        }
+        int messageIndex = Math.min(cursor - announcementIndex, directMessages.size());
+
+        LinkedList<Message> page = new LinkedList<>();
+        while (page.size() < count && (messageIndex > 0 || announcementIndex > 0)) {
+            if (announcementIndex > 0 && (messageIndex == 0 || !announcementsBetween.get(announcementIndex - 1)
+                    .getTime().isBefore(directMessages.get(messageIndex - 1).getTime()))) {
+                announcementIndex--;
+                Announcement announcement = announcementsBetween.get(announcementIndex);
+                String receiver = announcement.getSenderId() == firstUserId ? secondUser : firstUser;
+                page.addFirst(announcement.toMessage(receiver));
+            } else {
+                messageIndex--;
+                page.addFirst(directMessages.get(messageIndex));
+            }
+        }
+        return page;
+    }
+
+    // Helper method, gets the announcements either of the 2 users sent to the other, sorted by time. The 2 indexed
+    // lists are already sorted, so they are merged, the ones secondUser sent coming first among those sent at the same
+    // time.
+    private List<Announcement> getAnnouncementsBetween(String firstUser, String secondUser) {
+        List<Announcement> fromSecond = new ArrayList<>(announcementsTo(firstUser, secondUser));
+        if (firstUser.equals(secondUser)) {
+            return fromSecond;
+        }
+        List<Announcement> fromFirst = new ArrayList<>(announcementsTo(secondUser, firstUser));
+        List<Announcement> announcementsBetween = new ArrayList<>(fromSecond.size() + fromFirst.size());
+        int i = 0;
+        int j = 0;
+        while (i < fromSecond.size() || j < fromFirst.size()) {
+            if (j == fromFirst.size() || (i < fromSecond.size()
+                    && !fromSecond.get(i).getTime().isAfter(fromFirst.get(j).getTime()))) {
+                announcementsBetween.add(fromSecond.get(i++));
+            } else {
+                announcementsBetween.add(fromFirst.get(j++));
+            }
+        }
+        return announcementsBetween;
+    }
+
+    // Helper method, removes the receiver from the recipients of every announcement from sender
+    private void removeAnnouncementsTo(String receiver, String sender) {
+        Map<String, List<Announcement>> received = announcementsByReceiver.get(receiver);
+        List<Announcement> announcements = received == null ? null : received.remove(sender);
+        if (announcements != null) {
+            for (Announcement announcement : announcements) {
+                announcement.removeRecipient(receiver);
+            }
+        }
+    }
+
+    // Helper method, binary searches the messages, which are sorted by time, for the number of them sent at or before
+    // the time
+    private int countSentBy(List<Message> messages, LocalDateTime time) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (messages.get(mid).getTime().isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Helper method, formats the messages for the GUI
+    private List<List<String>> toStringGUI(List<Message> messages) {
         List<List<String>> inbox = new ArrayList<>();
-        if(messages == null) return inbox;
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         for(Message message : messages){
             List<String> messageInfo = new ArrayList<>();
@@ -187,7 +667,23 @@ public class MessageManager {
      * @param username2 User 2
      */
     public void deleteMutualThread(String username1, String username2){
-        chats.get(username1).remove(username2);
-        chats.get(username2).remove(username1);
+        // Announcements of both users are changed along with their conversation, so every stripe is locked
+        locks.writeAll(() -> {
+            Conversation conversation = getConversation(username1, username2);
+            if (conversation != null) {
+                conversation.deleteAll(username1);
+                conversation.deleteAll(username2);
+                removedConversations.add(conversation.getUsers());
+                chats.get(username1).remove(username2);
+                chats.get(username2).remove(username1);
+            }
+            removeAnnouncementsTo(username2, username1);
+            if (!username1.equals(username2)) {
+                removeAnnouncementsTo(username1, username2);
+            }
+            refreshInbox(username1, username2);
+            refreshInbox(username2, username1);
+            recordChange("deleteMutualThread", username1, username2);
+        });
     }
 }
@@ -2,21 +2,89 @@ package UseCases;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import Entities.Room;
 
 
 /**
  * This class is one of the use cases classes for this program, specifically for manipulating the Room entity class.
  * It stores a map of all room names to its room object.
+ *
+ * It can be used by many threads at once. Changes to a room hold the lock of its stripe, so that they are recorded in
+ * the order they were made, and the schedule of a room is locked on its own. A room also has a version, which
+ * counts the changes to its schedule, so that an event can be added only if the schedule was not changed since it
+ * was checked.
  */
 public class RoomManager {
-    private HashMap<String, Room> rooms;
+    private ConcurrentHashMap<String, Room> rooms;
+    private Journal journal = Journal.NONE;
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger savedVersion = new AtomicInteger();
+    private final StripedLock locks = new StripedLock();
 
     /**
      * The constructor takes rooms and assigns the variable an appropriate value.
      */
     public RoomManager() {
-        this.rooms = new HashMap<>();
+        this.rooms = new ConcurrentHashMap<>();
+    }
+
+    /** Sets the journal that every change made through this manager is recorded in
+     *
+     * @param journal Journal to record the changes in
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /** Returns the version of this manager, which is the number of changes made through it
+     *
+     * @return Number of changes made through this manager
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /** Returns whether this manager was changed since it was last saved
+     *
+     * @return true if a change was made through this manager after the version passed to markSaved, and false
+     * otherwise
+     */
+    public boolean isModified() {
+        return version.get() != savedVersion.get();
+    }
+
+    /** Records that the changes made through this manager up to the version have been saved. Changes made after the
+     * version was taken, such as while a snapshot of it was being written, are still to be saved.
+     *
+     * @param version Version of this manager that has been saved
+     */
+    public void markSaved(int version) {
+        savedVersion.accumulateAndGet(version, Math::max);
+    }
+
+    // Helper method, counts the change in the version of this manager and records the change in the journal
+    private void recordChange(String operation, Object... args) {
+        version.incrementAndGet();
+        journal.record(operation, args);
+    }
+
+    /** Waits for the changes being made through this manager to finish and keeps new ones from starting, so that a
+     * consistent copy of it can be read, such as for a snapshot. Reads go on in the meantime.
+     *
+     * @return Stamps to be passed to allowChanges
+     */
+    public long[] blockChanges() {
+        return locks.blockChanges();
+    }
+
+    /** Lets changes be made through this manager again after blockChanges
+     *
+     * @param stamps Stamps returned by blockChanges
+     */
+    public void allowChanges(long[] stamps) {
+        locks.allowChanges(stamps);
     }
 
     /**
@@ -41,13 +109,24 @@ public class RoomManager {
     }
 
     /**
-     * Implements getter, getRoomCapacity, for room in rooms.
+     * Implements getter, getRoomVersion, for room in rooms.
+     *
+     * @param roomName name of room to retrieve the version for
+     *
+     * @return number of changes made to the room's schedule
+     */
+    public int getRoomVersion(String roomName) {
+        return rooms.get(roomName).getVersion();
+    }
+
+    /**
+     * Implements getter, getRoomSchedule, for room in rooms.
      *
      * @param roomName name of room to retrieve schedule for
      *
-     * @return the room's schedule
+     * @return copy of the room's schedule
      */
-    public HashMap<UUID, List<LocalDateTime>> getRoomSchedule(String roomName) {
+    public Map<UUID, List<LocalDateTime>> getRoomSchedule(String roomName) {
         return rooms.get(roomName).getSchedule();
     }
 
@@ -59,7 +138,10 @@ public class RoomManager {
      */
     public void addRoom(String roomName, int capacity) {
         Room newRoom = new Room(roomName, capacity);
-        rooms.put(roomName, newRoom);
+        locks.write(roomName, () -> {
+            rooms.put(roomName, newRoom);
+            recordChange("addRoom", roomName, capacity);
+        });
     }
 
     /**
@@ -73,14 +155,20 @@ public class RoomManager {
      * can be successfully added
      */
     public boolean cannotAddEvent(String roomName, LocalDateTime newST, LocalDateTime newET) {
-        HashMap<UUID, List<LocalDateTime>> schedule = getRoomSchedule(roomName);
-        for (UUID event: schedule.keySet()){
-            List<LocalDateTime> timeSlot= schedule.get(event);
-            if (newET.isAfter(timeSlot.get(0)) && newST.isBefore(timeSlot.get(1))){
-                return true;
-            }
-        }
-        return false;
+        return !getConflictingEvents(roomName, newST, newET).isEmpty();
+    }
+
+    /**
+     * Implements getter, getConflictingEvents, for a room in rooms.
+     *
+     * @param roomName name of room to check the schedule of
+     * @param newST start time of potential event to be added
+     * @param newET end time of potential event to be added
+     *
+     * @return ids of the events in the room that overlap with the time period from newST to newET
+     */
+    public List<UUID> getConflictingEvents(String roomName, LocalDateTime newST, LocalDateTime newET) {
+        return rooms.get(roomName).getOverlappingEvents(newST, newET);
     }
 
     /**
@@ -114,13 +202,39 @@ public class RoomManager {
      * @param eventId id of the event to be added to a room's schedule
      * @param roomName name of room to modify schedule for
      * @param start start time of event to be added
+     * @param end end time of event to be added
      */
     public void addEventToSchedule(UUID eventId, String roomName, LocalDateTime start, LocalDateTime end) {
-        Room room = rooms.get(roomName);
-        HashMap<UUID, List<LocalDateTime>> updated_room = room.getSchedule();
-        List<LocalDateTime> timeSlot = Arrays.asList(start, end);
-        updated_room.put(eventId, timeSlot);
-        room.setRoomSchedule(updated_room);
+        locks.write(roomName, () -> {
+            rooms.get(roomName).addToSchedule(eventId, start, end);
+            recordChange("addEventToSchedule", eventId, roomName, start, end);
+        });
+    }
+
+    /**
+     * Implements modifier, addEventToSchedule, for event in a room, if the room's schedule is still at the expected
+     * version. The version is read before the schedule is checked for conflicts, so that the event is not added if a
+     * conflicting event was added in the meantime.
+     *
+     * @param eventId id of the event to be added to a room's schedule
+     * @param roomName name of room to modify schedule for
+     * @param start start time of event to be added
+     * @param end end time of event to be added
+     * @param expectedVersion version of the room that the schedule was checked at
+     *
+     * @return true if the event was added, and false if the schedule has changed since the expected version
+     */
+    public boolean addEventToSchedule(UUID eventId, String roomName, LocalDateTime start, LocalDateTime end,
+                                      int expectedVersion) {
+        return locks.compute(roomName, () -> {
+            Room room = rooms.get(roomName);
+            if (room.getVersion() != expectedVersion) {
+                return false;
+            }
+            room.addToSchedule(eventId, start, end);
+            recordChange("addEventToSchedule", eventId, roomName, start, end);
+            return true;
+        });
     }
 
     /**
@@ -129,10 +243,10 @@ public class RoomManager {
      * @param roomName the room that the event will be removed from
      */
     public void removeEventFromRoom(UUID eventID, String roomName){
-        Room room = rooms.get(roomName);
-        HashMap<UUID, List<LocalDateTime>> schedule = room.getSchedule();
-        schedule.remove(eventID);
-        room.setRoomSchedule(schedule);
+        locks.write(roomName, () -> {
+            rooms.get(roomName).removeFromSchedule(eventID);
+            recordChange("removeEventFromRoom", eventID, roomName);
+        });
     }
 
     /**
@@ -141,10 +255,7 @@ public class RoomManager {
      * @return a boolean indicating if the room has space for the event's capacity
      */
     public boolean hasInsufficientSpace(String roomName, int capacity){
-        if (roomExists(roomName)){
-            Room room = rooms.get(roomName);
-            return room.getCapacity() < capacity;
-        }
-        return true;
+        Room room = rooms.get(roomName);
+        return room == null || room.getCapacity() < capacity;
     }
 }
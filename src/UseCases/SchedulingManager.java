@@ -0,0 +1,155 @@
+package UseCases;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import Entities.Event;
+
+/**
+ * This class is one of the use cases classes for this program, specifically for creating, moving and cancelling
+ * events. Each of these changes the EventManager, the UserManager of the speakers and attendees, and the RoomManager
+ * of the rooms, so it is made here as one unit of work, which is either made in full or undone.
+ *
+ * The rooms and events are checked without locking them. The event is then added to a room only if the room's
+ * schedule is still at the version it was checked at, and an event is moved or cancelled only if it is still at the
+ * version it was read at. Otherwise the operation is undone and checked again.
+ */
+public class SchedulingManager {
+    private final EventManager eventManager;
+    private final UserManager userManager;
+    private final RoomManager roomManager;
+
+    /**
+     * The constructor takes the managers that scheduling changes.
+     *
+     * @param eventManager EventManager holding the events
+     * @param userManager UserManager holding the speakers and attendees
+     * @param roomManager RoomManager holding the rooms
+     */
+    public SchedulingManager(EventManager eventManager, UserManager userManager, RoomManager roomManager) {
+        this.eventManager = eventManager;
+        this.userManager = userManager;
+        this.roomManager = roomManager;
+    }
+
+    /**
+     * Creates an event with its speakers and adds it to the schedule of its room. The time slot in the room is booked
+     * first, and the event is added last, so that it cannot be moved or cancelled before it is created in full.
+     *
+     * @param eventName name of the event
+     * @param organizer username of the organizer of the event
+     * @param startTime start time of the event
+     * @param endTime end time of the event
+     * @param roomName name of the room of the event
+     * @param maxCapacity maximum capacity of the event, excluding the speakers
+     * @param speakers usernames of the speakers, who should be registered speakers
+     * @return DONE if the event was created, and otherwise the reason it was not
+     */
+    public SchedulingResult createEvent(String eventName, String organizer, LocalDateTime startTime,
+                                        LocalDateTime endTime, String roomName, int maxCapacity,
+                                        List<String> speakers) {
+        UUID eventID = UUID.randomUUID();
+        return UnitOfWork.run(work -> {
+            if (!roomManager.roomExists(roomName)) {
+                return SchedulingResult.NO_ROOM;
+            }
+            int roomVersion = roomManager.getRoomVersion(roomName);
+            if (roomManager.cannotAddEvent(roomName, startTime, endTime)) {
+                return SchedulingResult.ROOM_TAKEN;
+            }
+            if (roomManager.hasInsufficientSpace(roomName, speakers.size() + maxCapacity)) {
+                return SchedulingResult.ROOM_TOO_SMALL;
+            }
+            if (!roomManager.addEventToSchedule(eventID, roomName, startTime, endTime, roomVersion)) {
+                return null;
+            }
+            work.onRollback(() -> roomManager.removeEventFromRoom(eventID, roomName));
+            for (String speaker : speakers) {
+                userManager.addEventAttending(speaker, eventID);
+                work.onRollback(() -> userManager.removeEventAttending(speaker, eventID));
+            }
+            eventManager.addEvent(eventName, organizer, startTime, endTime, roomName, maxCapacity, eventID, speakers);
+            return SchedulingResult.DONE;
+        });
+    }
+
+    /**
+     * Moves an event to another room, at the same time. The event is booked in the new room before it is moved, and
+     * only then removed from the old one.
+     *
+     * @param eventID ID of the event
+     * @param roomName name of the new room
+     * @return DONE if the event was moved, and otherwise the reason it was not
+     */
+    public SchedulingResult changeRoom(UUID eventID, String roomName) {
+        return UnitOfWork.run(work -> {
+            if (!roomManager.roomExists(roomName)) {
+                return SchedulingResult.NO_ROOM;
+            }
+            EventSlot event = eventManager.readEvent(eventID, EventSlot::new);
+            if (event == null) {
+                return SchedulingResult.NO_EVENT;
+            }
+            int roomVersion = roomManager.getRoomVersion(roomName);
+            if (roomManager.cannotAddEvent(roomName, event.startTime, event.endTime)) {
+                return SchedulingResult.ROOM_TAKEN;
+            }
+            if (roomManager.hasInsufficientSpace(roomName, event.size)) {
+                return SchedulingResult.ROOM_TOO_SMALL;
+            }
+            if (!roomManager.addEventToSchedule(eventID, roomName, event.startTime, event.endTime, roomVersion)) {
+                return null;
+            }
+            work.onRollback(() -> roomManager.removeEventFromRoom(eventID, roomName));
+            if (!eventManager.setEventRoomName(eventID, roomName, event.version)) {
+                return null;
+            }
+            work.onRollback(() -> eventManager.setEventRoomName(eventID, event.roomName));
+            roomManager.removeEventFromRoom(eventID, event.roomName);
+            return SchedulingResult.DONE;
+        });
+    }
+
+    /**
+     * Cancels an event, removing it from its attendees, speakers and room. The event is removed first, so that no one
+     * can sign up for it while it is being cancelled, and then the attendees and speakers it had when it was removed
+     * are updated.
+     *
+     * @param eventID ID of the event
+     * @return DONE if the event was cancelled, and NO_EVENT if it does not exist
+     */
+    public SchedulingResult cancelEvent(UUID eventID) {
+        return UnitOfWork.run(work -> {
+            EventSlot event = eventManager.readEvent(eventID, EventSlot::new);
+            if (event == null) {
+                return SchedulingResult.NO_EVENT;
+            }
+            List<String> users = eventManager.removeEvent(eventID, event.version);
+            if (users == null) {
+                return null;
+            }
+            for (String username : users) {
+                userManager.removeEventAttending(username, eventID);
+            }
+            roomManager.removeEventFromRoom(eventID, event.roomName);
+            return SchedulingResult.DONE;
+        });
+    }
+
+    // The values of an event that scheduling depends on, read together at one version of the event
+    private static final class EventSlot {
+        private final int version;
+        private final String roomName;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final int size;
+
+        private EventSlot(Event event) {
+            this.version = event.getVersion();
+            this.roomName = event.getRoomName();
+            this.startTime = event.getStartTime();
+            this.endTime = event.getEndTime();
+            this.size = event.getMaxCapacity() + event.getSpeakers().size();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package UseCases;
+
+/**
+ * The result of creating, moving or cancelling an event.
+ */
+public enum SchedulingResult {
+
+    /**
+     * The event was created, moved or cancelled.
+     */
+    DONE,
+
+    /**
+     * The event does not exist.
+     */
+    NO_EVENT,
+
+    /**
+     * The room does not exist.
+     */
+    NO_ROOM,
+
+    /**
+     * The room is hosting another event at the same time.
+     */
+    ROOM_TAKEN,
+
+    /**
+     * The room is too small for the capacity and speakers of the event.
+     */
+    ROOM_TOO_SMALL
+}
@@ -0,0 +1,51 @@
+package UseCases;
+
+import java.util.UUID;
+
+/**
+ * This class is one of the use cases classes for this program, specifically for signing users up for events. A
+ * sign-up changes both the EventManager, which holds the attendees of the event, and the UserManager, which holds the
+ * events of the user, so it is made here as one operation rather than as separate calls to each manager.
+ */
+public class SignUpManager {
+    private final EventManager eventManager;
+    private final UserManager userManager;
+
+    /**
+     * The constructor takes the managers that a sign-up changes.
+     *
+     * @param eventManager EventManager holding the event
+     * @param userManager UserManager holding the user
+     */
+    public SignUpManager(EventManager eventManager, UserManager userManager) {
+        this.eventManager = eventManager;
+        this.userManager = userManager;
+    }
+
+    /**
+     * Signs a user up for an event. The seat is reserved and the user added as an attendee in one step of the
+     * EventManager, which is undone if the event cannot then be added to the user.
+     *
+     * @param eventID ID of the event
+     * @param username username of the user, who should be registered
+     * @return SIGNED_UP if the user was signed up, and otherwise the reason they were not
+     */
+    public SignUpResult signUp(UUID eventID, String username) {
+        SignUpResult result = eventManager.signUp(eventID, username);
+        if (result == SignUpResult.SIGNED_UP) {
+            try {
+                userManager.addEventAttending(username, eventID);
+            } catch (RuntimeException e) {
+                eventManager.removeAttendee(username, eventID);
+                throw e;
+            }
+            // If the event was cancelled in the meantime, the cancellation may have updated the user before the event
+            // was added to them
+            if (!eventManager.eventExists(eventID)) {
+                userManager.removeEventAttending(username, eventID);
+                return SignUpResult.CLOSED;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package UseCases;
+
+/**
+ * The result of signing a user up for an event.
+ */
+public enum SignUpResult {
+
+    /**
+     * The user was signed up for the event.
+     */
+    SIGNED_UP,
+
+    /**
+     * The user was already signed up for the event.
+     */
+    ALREADY_ATTENDING,
+
+    /**
+     * The user is attending or speaking at another event at the same time.
+     */
+    CONFLICT,
+
+    /**
+     * Every seat of the event is taken.
+     */
+    FULL,
+
+    /**
+     * The event has already started or was cancelled, so it is closed for sign-up.
+     */
+    CLOSED
+}
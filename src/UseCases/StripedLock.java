@@ -0,0 +1,168 @@
+package UseCases;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks the state of a use case class in stripes, so that callers working on different events, rooms, users or
+ * conversations do not wait for each other. A key, such as the id of an event, always maps to the same stripe.
+ *
+ * Reads are first made without locking, and are only made again under the read lock of the stripe when a change to
+ * the stripe was made while they ran. Because of that, a read has to be tolerant of seeing a change halfway, and must
+ * not change anything itself. Changes hold the write lock of their stripes, and the stripes of 2 keys are always
+ * locked in the same order. The locks are not reentrant, so a read or a change must not be started while one is
+ * already running on the same thread.
+ */
+public final class StripedLock {
+    private static final int NUM_STRIPES = 64;
+
+    private final StampedLock[] stripes;
+
+    /**
+     * The constructor instantiates the stripes, none of which are locked.
+     */
+    public StripedLock() {
+        stripes = new StampedLock[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new StampedLock();
+        }
+    }
+
+    /** Reads from the stripe of the key, without locking unless a change is made to the stripe at the same time
+     *
+     * @param key Key of the stripe
+     * @param read Read to be made, which may run more than once
+     * @param <T> Type of the result of the read
+     * @return Result of the read
+     */
+    public <T> T read(Object key, Supplier<T> read) {
+        StampedLock stripe = stripes[indexOf(key)];
+        long stamp = stripe.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = read.get();
+                if (stripe.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // A change made at the same time can make the read fail, in which case it is made again under the
+                // lock, and the exception is only thrown if nothing was changed
+                if (stripe.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = stripe.readLock();
+        try {
+            return read.get();
+        } finally {
+            stripe.unlockRead(stamp);
+        }
+    }
+
+    /** Makes a change under the write lock of the stripe of the key
+     *
+     * @param key Key of the stripe
+     * @param change Change to be made
+     */
+    public void write(Object key, Runnable change) {
+        compute(key, () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /** Makes a change that has a result under the write lock of the stripe of the key
+     *
+     * @param key Key of the stripe
+     * @param change Change to be made
+     * @param <T> Type of the result of the change
+     * @return Result of the change
+     */
+    public <T> T compute(Object key, Supplier<T> change) {
+        StampedLock stripe = stripes[indexOf(key)];
+        long stamp = stripe.writeLock();
+        try {
+            return change.get();
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    /** Makes a change under the write locks of the stripes of both keys, which are locked in order of their index
+     *
+     * @param firstKey Key of the first stripe
+     * @param secondKey Key of the second stripe
+     * @param change Change to be made
+     */
+    public void write(Object firstKey, Object secondKey, Runnable change) {
+        int first = indexOf(firstKey);
+        int second = indexOf(secondKey);
+        if (first == second) {
+            write(firstKey, change);
+            return;
+        }
+        StampedLock lower = stripes[Math.min(first, second)];
+        StampedLock higher = stripes[Math.max(first, second)];
+        long lowerStamp = lower.writeLock();
+        try {
+            long higherStamp = higher.writeLock();
+            try {
+                change.run();
+            } finally {
+                higher.unlockWrite(higherStamp);
+            }
+        } finally {
+            lower.unlockWrite(lowerStamp);
+        }
+    }
+
+    /** Makes a change under the write locks of every stripe, for the rare changes that span many keys
+     *
+     * @param change Change to be made
+     */
+    public void writeAll(Runnable change) {
+        long[] stamps = new long[NUM_STRIPES];
+        int locked = 0;
+        try {
+            for (; locked < NUM_STRIPES; locked++) {
+                stamps[locked] = stripes[locked].writeLock();
+            }
+            change.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[i].unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /** Waits for the changes being made to finish and keeps new ones from starting, while reads go on. Used to read a
+     * consistent copy of the state, such as for a snapshot.
+     *
+     * @return Stamps to be passed to allowChanges
+     */
+    public long[] blockChanges() {
+        long[] stamps = new long[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stamps[i] = stripes[i].readLock();
+        }
+        return stamps;
+    }
+
+    /** Lets changes be made again after blockChanges
+     *
+     * @param stamps Stamps returned by blockChanges
+     */
+    public void allowChanges(long[] stamps) {
+        for (int i = NUM_STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlockRead(stamps[i]);
+        }
+    }
+
+    // Helper method, spreads the hash of the key over the stripes
+    private static int indexOf(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash ^ hash >>> 7) & (NUM_STRIPES - 1);
+    }
+}
@@ -0,0 +1,75 @@
+package UseCases;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Function;
+
+/**
+ * A unit of work groups the changes of one operation that spans several managers. Each change is made right away and
+ * followed by the change that undoes it, so that if the operation fails partway, the changes already made are undone
+ * in reverse order.
+ *
+ * No lock is held across the managers. Instead, the operation reads the versions of what it depends on and makes the
+ * changes that depend on them only if the versions are unchanged. If one was changed by someone else in the meantime,
+ * the operation is undone and run again on what it now reads.
+ */
+final class UnitOfWork {
+    private final Deque<Runnable> undos = new ArrayDeque<>();
+
+    private UnitOfWork() {
+    }
+
+    /**
+     * Runs an operation in a unit of work until it is not interrupted by a conflicting change.
+     *
+     * @param operation Operation to run, which returns its result, or null if a change it depends on was made since
+     *                  it read the versions
+     * @param <T> Type of the result of the operation
+     * @return Result of the first run of the operation that did not return null
+     */
+    static <T> T run(Function<UnitOfWork, T> operation) {
+        while (true) {
+            UnitOfWork work = new UnitOfWork();
+            T result;
+            try {
+                result = operation.apply(work);
+            } catch (RuntimeException e) {
+                work.rollback(e);
+                throw e;
+            }
+            if (result != null) {
+                return result;
+            }
+            work.rollback(null);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Records how to undo the change that was just made, if the operation does not finish.
+     *
+     * @param undo Change that undoes it
+     */
+    void onRollback(Runnable undo) {
+        undos.push(undo);
+    }
+
+    // Helper method, undoes the changes made so far, latest first. Every undo is tried even if an earlier one fails.
+    private void rollback(RuntimeException cause) {
+        RuntimeException failure = cause;
+        while (!undos.isEmpty()) {
+            try {
+                undos.pop().run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null && failure != cause) {
+            throw failure;
+        }
+    }
+}
@@ -1,19 +1,90 @@
 package UseCases;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import Entities.User;
 import Entities.UserType;
 
 /** Handles user related functions of this program.
+ *
+ * It can be used by many threads at once. Changes to a user hold the lock of the stripe of their username, and reads
+ * of a user only wait when that user is being changed.
  */
 public class UserManager {
 
-    private HashMap<String, User> usernamesToUsers;
+    private ConcurrentHashMap<String, User> usernamesToUsers;
+    private EnumMap<UserType, Set<String>> usernamesByType;
+    private Journal journal = Journal.NONE;
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger savedVersion = new AtomicInteger();
+    private final StripedLock locks = new StripedLock();
 
     /** Creates an instance of UserManager
      */
     public UserManager () {
-        usernamesToUsers = new HashMap<>();
+        usernamesToUsers = new ConcurrentHashMap<>();
+        usernamesByType = new EnumMap<>(UserType.class);
+        for (UserType userType : UserType.values()) {
+            usernamesByType.put(userType, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /** Sets the journal that every change made through this manager is recorded in
+     *
+     * @param journal Journal to record the changes in
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /** Returns the version of this manager, which is the number of changes made through it
+     *
+     * @return Number of changes made through this manager
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /** Returns whether this manager was changed since it was last saved
+     *
+     * @return true if a change was made through this manager after the version passed to markSaved, and false
+     * otherwise
+     */
+    public boolean isModified() {
+        return version.get() != savedVersion.get();
+    }
+
+    /** Records that the changes made through this manager up to the version have been saved. Changes made after the
+     * version was taken, such as while a snapshot of it was being written, are still to be saved.
+     *
+     * @param version Version of this manager that has been saved
+     */
+    public void markSaved(int version) {
+        savedVersion.accumulateAndGet(version, Math::max);
+    }
+
+    // Helper method, counts the change in the version of this manager and records the change in the journal
+    private void recordChange(String operation, Object... args) {
+        version.incrementAndGet();
+        journal.record(operation, args);
+    }
+
+    /** Waits for the changes being made through this manager to finish and keeps new ones from starting, so that a
+     * consistent copy of it can be read, such as for a snapshot. Reads go on in the meantime.
+     *
+     * @return Stamps to be passed to allowChanges
+     */
+    public long[] blockChanges() {
+        return locks.blockChanges();
+    }
+
+    /** Lets changes be made through this manager again after blockChanges
+     *
+     * @param stamps Stamps returned by blockChanges
+     */
+    public void allowChanges(long[] stamps) {
+        locks.allowChanges(stamps);
     }
 
     /** Creates a list of usernames of all registered users and returns it.
@@ -25,25 +96,23 @@ public class UserManager {
         return new ArrayList<>(users);
     }
 
-    /** Returns a list of usernames of all registered users of the specific user-type
+    /** Returns the usernames of all registered users of the specific user-type
      *
      * @param userType The type of the user
-     * @return A list of usernames
+     * @return A read-only view of the usernames, which reflects users registered later on
      */
-    public List<String> getUserList(UserType userType){
-        ArrayList<String> userList = new ArrayList<>();
-
-        for(String username : getUsernameList()){
-            if (getUserType(username) == userType) {
-                userList.add(username);
-            }
-        }
-
-        return userList;
+    public Set<String> getUserList(UserType userType){
+        return Collections.unmodifiableSet(usernamesByType.get(userType));
     }
 
+    /** Determines whether the given username does not belong to a registered user of the specific user-type
+     *
+     * @param username The username to be checked
+     * @param userType The type of the user
+     * @return true if there is no user of type userType with this username, and false otherwise
+     */
     public boolean isNotUserType(String username, UserType userType){
-        return !getUserList(userType).contains(username);
+        return !usernamesByType.get(userType).contains(username);
     }
 
     /** Determines whether the given username is registered in this userManager
@@ -65,7 +134,17 @@ public class UserManager {
      * @param password The pass of the user to be created.
      */
     public void registerUser(UserType userType, String name, String username, String password) {
-        usernamesToUsers.put(username, new User(userType, name, username, password));
+        User newUser = new User(userType, name, username, password);
+        locks.write(username, () -> {
+            User oldUser = usernamesToUsers.put(username, newUser);
+            if (oldUser != null && oldUser.getUserType() != null) {
+                usernamesByType.get(oldUser.getUserType()).remove(username);
+            }
+            if (userType != null) {
+                usernamesByType.get(userType).add(username);
+            }
+            recordChange("registerUser", userType, name, username, password);
+        });
     }
 
     /** Checks if the given username and password match the login credentials of a registered user.
@@ -88,9 +167,13 @@ public class UserManager {
      * @param eventId The id of the event that the user is being signed up for.
      */
     public void addEventAttending(String username, UUID eventId) {
-        List<UUID> eventsAttending = usernamesToUsers.get(username).getEventsAttending();
-        eventsAttending.add(eventId);
-        usernamesToUsers.get(username).setEventsAttending(eventsAttending);
+        locks.write(username, () -> {
+            User user = usernamesToUsers.get(username);
+            List<UUID> eventsAttending = new ArrayList<>(user.getEventsAttending());
+            eventsAttending.add(eventId);
+            user.setEventsAttending(eventsAttending);
+            recordChange("addEventAttending", username, eventId);
+        });
     }
 
     /** Removes an event id from a particular user's list of events that they are signed up for.
@@ -99,9 +182,13 @@ public class UserManager {
      * @param eventId The id of the event that is being removed.
      */
     public void removeEventAttending(String username, UUID eventId) {
-        List<UUID> eventsAttending = usernamesToUsers.get(username).getEventsAttending();
-        eventsAttending.remove(eventId);
-        usernamesToUsers.get(username).setEventsAttending(eventsAttending);
+        locks.write(username, () -> {
+            User user = usernamesToUsers.get(username);
+            List<UUID> eventsAttending = new ArrayList<>(user.getEventsAttending());
+            eventsAttending.remove(eventId);
+            user.setEventsAttending(eventsAttending);
+            recordChange("removeEventAttending", username, eventId);
+        });
     }
 
     /** Adds a friend to the list of friends that a particular user has
@@ -111,9 +198,10 @@ public class UserManager {
      *
      */
     public void addFriend(String username, String friendUsername) {
-        List<String> friends = usernamesToUsers.get(username).getFriends();
-        friends.add(friendUsername);
-        usernamesToUsers.get(username).setFriends(friends);
+        locks.write(username, () -> {
+            usernamesToUsers.get(username).addFriend(friendUsername);
+            recordChange("addFriend", username, friendUsername);
+        });
     }
 
     /** Gets the name of a particular user.
@@ -140,10 +228,10 @@ public class UserManager {
      *
      * @param username The username of the user whose event list is being retrieved.
      *
-     * @return the list of the event ids
+     * @return copy of the list of the event ids
      */
     public List<UUID> getEventsAttending(String username) {
-        return usernamesToUsers.get(username).getEventsAttending();
+        return locks.read(username, () -> new ArrayList<>(usernamesToUsers.get(username).getEventsAttending()));
     }
 
     /** Gets a list of usernames of the friends of a particular user.
@@ -153,7 +241,7 @@ public class UserManager {
      * @return the list of the user's friends
      */
     public List<String> getFriends(String username) {
-        return usernamesToUsers.get(username).getFriends();
+        return locks.read(username, () -> usernamesToUsers.get(username).getFriends());
     }
 
     /** Gets the type (Attendee, Organizer, or Speaker) of a particular user.